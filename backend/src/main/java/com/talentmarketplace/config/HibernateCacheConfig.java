@@ -0,0 +1,88 @@
+package com.talentmarketplace.config;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Regions of the Hibernate second-level cache, each a bounded Ehcache heap store with its own
+ * entry limit and time-to-live. Hibernate is handed this cache manager and refuses to start on
+ * a region that is not configured here, so no region can grow without bounds.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    public static final String USERS = "users";
+    public static final String CANDIDATE_PROFILES = "candidate-profiles";
+    public static final String USER_QUERIES = "user-queries";
+    public static final String CANDIDATE_PROFILE_QUERIES = "candidate-profile-queries";
+
+    // One entry per table; they must outlive every cached query result, so they never expire
+    private static final long UPDATE_TIMESTAMP_ENTRIES = 1000;
+
+    @Value("${cache.second-level.users.max-entries:10000}")
+    private long userEntries;
+
+    @Value("${cache.second-level.users.ttl-seconds:600}")
+    private long userTtlSeconds;
+
+    @Value("${cache.second-level.candidate-profiles.max-entries:40000}")
+    private long candidateProfileEntries;
+
+    @Value("${cache.second-level.candidate-profiles.ttl-seconds:600}")
+    private long candidateProfileTtlSeconds;
+
+    @Value("${cache.second-level.queries.max-entries:10000}")
+    private long queryEntries;
+
+    @Value("${cache.second-level.queries.ttl-seconds:300}")
+    private long queryTtlSeconds;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        ConfigurationBuilder regions = ConfigurationBuilder.newConfigurationBuilder()
+            .withCache(USERS, region(userEntries, userTtlSeconds))
+            .withCache(CANDIDATE_PROFILES, region(candidateProfileEntries, candidateProfileTtlSeconds))
+            .withCache(USER_QUERIES, region(queryEntries, queryTtlSeconds))
+            .withCache(CANDIDATE_PROFILE_QUERIES, region(queryEntries, queryTtlSeconds))
+            .withCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, region(queryEntries, queryTtlSeconds))
+            .withCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                    ResourcePoolsBuilder.heap(UPDATE_TIMESTAMP_ENTRIES)).build());
+        EhcacheCachingProvider provider =
+            (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // A URI of its own keeps a second application context in the same JVM from sharing the regions
+        return provider.getCacheManager(URI.create("urn:talent-marketplace:hibernate:" + UUID.randomUUID()),
+            regions.build());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private static CacheConfiguration<Object, Object> region(long maxEntries, long ttlSeconds) {
+        return CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                ResourcePoolsBuilder.heap(maxEntries))
+            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)))
+            .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.talentmarketplace.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a latency histogram, tagged with layer, class and method, for every call into a
+ * service or a Spring Data repository made through its Spring proxy. Calls that throw are
+ * tagged with the exception type. Timers are looked up once per class and method.
+ */
+@Aspect
+@Component
+public class MethodTimingAspect {
+    public static final String METRIC_NAME = "app.method";
+
+    private static final String APPLICATION_PACKAGE = "com.talentmarketplace.";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MethodTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(com.talentmarketplace.service..*)")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "service", AopUtils.getTargetClass(joinPoint.getTarget()));
+    }
+
+    // Repository methods are implemented by Spring Data, so the proxy is matched by type instead of package
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(joinPoint, "repository", repositoryInterface(joinPoint.getThis().getClass()));
+    }
+
+    private Object time(ProceedingJoinPoint joinPoint, String layer, Class<?> type) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            timer(new TimerKey(layer, type.getSimpleName(), method.getName(), outcome))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return timers.computeIfAbsent(key, k -> Timer.builder(METRIC_NAME)
+            .description("Latency of service and repository calls")
+            .tag("layer", k.layer)
+            .tag("class", k.className)
+            .tag("method", k.method)
+            .tag("outcome", k.outcome)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(10))
+            .register(meterRegistry));
+    }
+
+    private static Class<?> repositoryInterface(Class<?> proxyClass) {
+        return Arrays.stream(proxyClass.getInterfaces())
+            .filter(type -> type.getName().startsWith(APPLICATION_PACKAGE) && Repository.class.isAssignableFrom(type))
+            .findFirst()
+            .orElse(proxyClass);
+    }
+
+    private record TimerKey(String layer, String className, String method, String outcome) {
+    }
+}
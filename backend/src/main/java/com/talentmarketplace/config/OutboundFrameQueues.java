@@ -0,0 +1,418 @@
+package com.talentmarketplace.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gives every WebSocket session its own bounded queue of outgoing frames, drained by a sender
+ * that belongs to that session alone. The broker and the client outbound channel only ever
+ * enqueue, so a client that reads slowly holds up its own frames and nobody else's.
+ * <p>
+ * Frames that carry a {@link #COLLAPSE_KEY_HEADER} replace a not yet sent frame with the same
+ * key, which keeps only the latest presence or typing state for a backed-up client. When a
+ * queue exceeds its frame or byte limit, the {@code drop-oldest} policy discards the oldest
+ * frames that are not on a protected destination such as the chat inbox; if only protected
+ * frames are left, or the policy is {@code disconnect}, the session is closed and the client
+ * reconnects and reloads its history. A watchdog thread closes any session whose current send
+ * has been blocked for longer than the send time limit. Closes run on threads of their own, never
+ * on the senders, as a close frame to a stuck client blocks like any other send.
+ * <p>
+ * On platform threads the senders are a pool of at most {@code sender-threads}. A session that
+ * has frames while every sender is busy waits for one, its frames piling up in its own bounded
+ * queue, so the sessions beyond the cap fall to the overflow policy instead of costing a thread
+ * each. With virtual threads every session still gets its own sender.
+ */
+@Component
+public class OutboundFrameQueues implements WebSocketHandlerDecoratorFactory {
+    private static final Logger log = LoggerFactory.getLogger(OutboundFrameQueues.class);
+
+    public static final String COLLAPSE_KEY_HEADER = "collapse-key";
+
+    public static final String OVERFLOW_DROP_OLDEST = "drop-oldest";
+    public static final String OVERFLOW_DISCONNECT = "disconnect";
+
+    // A busy session hands its sender back after this many frames, so it cannot hold one forever
+    private static final int DRAIN_BATCH = 64;
+
+    private final Map<String, QueuedSession> sessions = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+
+    @Value("${websocket.outbound.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${websocket.outbound.buffer-size-limit:524288}")
+    private long bufferSizeLimit;
+
+    @Value("${websocket.outbound.send-time-limit-ms:10000}")
+    private long sendTimeLimitMs;
+
+    @Value("${websocket.outbound.watchdog-interval-ms:1000}")
+    private long watchdogIntervalMs;
+
+    @Value("${websocket.outbound.overflow:" + OVERFLOW_DROP_OLDEST + "}")
+    private String overflow;
+
+    @Value("${websocket.outbound.collapse:true}")
+    private boolean collapse;
+
+    @Value("${websocket.outbound.protected-destinations:/user/queue/messages}")
+    private String[] protectedDestinations;
+
+    @Value("${websocket.outbound.sender-threads:200}")
+    private int senderThreads;
+
+    private Executor senders;
+    private Executor closers;
+    private ScheduledExecutorService watchdog;
+    private boolean dropOldest;
+    private Counter dropped;
+    private Counter collapsed;
+    private Counter overflowDisconnects;
+    private Counter sendTimeDisconnects;
+    private Counter sendFailures;
+    private DistributionSummary droppedPerSession;
+    private DistributionSummary maxDepthPerSession;
+
+    @Autowired
+    public OutboundFrameQueues(MeterRegistry meterRegistry, Environment environment) {
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    @PostConstruct
+    void start() {
+        if (OVERFLOW_DROP_OLDEST.equals(overflow)) {
+            dropOldest = true;
+        } else if (!OVERFLOW_DISCONNECT.equals(overflow)) {
+            throw new IllegalStateException("Unknown websocket.outbound.overflow '" + overflow
+                    + "', expected " + OVERFLOW_DROP_OLDEST + " or " + OVERFLOW_DISCONNECT);
+        }
+        // A sender blocks for as long as its client is slow; at most one drain per session is ever queued
+        if (virtualThreads) {
+            senders = new VirtualThreadTaskExecutor("ws-send-");
+            closers = new VirtualThreadTaskExecutor("ws-close-");
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(senderThreads, senderThreads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "ws-send-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            Gauge.builder("websocket.outbound.senders.waiting", pool, executor -> executor.getQueue().size())
+                    .description("Sessions with queued frames waiting for a free sender thread")
+                    .register(meterRegistry);
+            senders = pool;
+            // A close to a stuck client can wait out the container's send timeout, so each close gets a thread
+            AtomicInteger closerNumber = new AtomicInteger();
+            closers = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "ws-close-" + closerNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-send-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.scheduleWithFixedDelay(this::closeStalledSessions, watchdogIntervalMs, watchdogIntervalMs,
+                TimeUnit.MILLISECONDS);
+
+        Gauge.builder("websocket.outbound.queue.depth", sessions,
+                        all -> all.values().stream().mapToInt(QueuedSession::depth).sum())
+                .description("Frames queued for all WebSocket sessions")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.queue.depth.max", sessions,
+                        all -> all.values().stream().mapToInt(QueuedSession::depth).max().orElse(0))
+                .description("Frames queued for the most backed-up WebSocket session")
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.sessions", sessions, Map::size)
+                .register(meterRegistry);
+        dropped = Counter.builder("websocket.outbound.dropped")
+                .description("Frames discarded because a session queue overflowed")
+                .register(meterRegistry);
+        collapsed = Counter.builder("websocket.outbound.collapsed")
+                .description("Queued frames replaced by a newer frame with the same collapse key")
+                .register(meterRegistry);
+        overflowDisconnects = Counter.builder("websocket.outbound.disconnects")
+                .tag("reason", "overflow")
+                .register(meterRegistry);
+        sendTimeDisconnects = Counter.builder("websocket.outbound.disconnects")
+                .tag("reason", "send-time")
+                .register(meterRegistry);
+        sendFailures = Counter.builder("websocket.outbound.send.failures")
+                .description("Sends to a client that failed, each closing the session")
+                .register(meterRegistry);
+        // Per-session figures, recorded when a session ends so sessions do not become tags
+        droppedPerSession = DistributionSummary.builder("websocket.outbound.session.dropped")
+                .description("Frames dropped over the lifetime of one session")
+                .register(meterRegistry);
+        maxDepthPerSession = DistributionSummary.builder("websocket.outbound.session.depth.max")
+                .description("Deepest queue one session reached")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        watchdog.shutdownNow();
+        if (senders instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+        if (closers instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    // Runs apart from the senders, so it still acts when every one of them is blocked on a stuck client
+    private void closeStalledSessions() {
+        try {
+            long limit = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+            long now = System.nanoTime();
+            for (QueuedSession session : sessions.values()) {
+                long startedAt = session.sendStartedAt;
+                if (startedAt != 0 && now - startedAt > limit) {
+                    session.disconnect(sendTimeDisconnects, "a send blocked for more than " + sendTimeLimitMs + "ms");
+                }
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule
+            log.warn("Checking WebSocket sessions for stalled sends failed", e);
+        }
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                QueuedSession queued = new QueuedSession(session);
+                sessions.put(session.getId(), queued);
+                super.afterConnectionEstablished(queued);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                QueuedSession queued = sessions.remove(session.getId());
+                if (queued != null) {
+                    queued.release();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private record Frame(WebSocketMessage<?> message, int size, boolean droppable, String collapseKey) {
+    }
+
+    // Only MESSAGE frames are inspected; CONNECTED, RECEIPT, ERROR and heartbeats are never dropped
+    private Frame frameOf(WebSocketMessage<?> message) {
+        int size = message.getPayloadLength();
+        if (!(message instanceof TextMessage text) || !text.getPayload().startsWith("MESSAGE\n")) {
+            return new Frame(message, size, false, null);
+        }
+        String payload = text.getPayload();
+        int headersEnd = payload.indexOf("\n\n");
+        String destination = null;
+        String collapseKey = null;
+        int lineStart = payload.indexOf('\n') + 1;
+        while (lineStart > 0 && lineStart < headersEnd) {
+            int lineEnd = payload.indexOf('\n', lineStart);
+            String line = payload.substring(lineStart, lineEnd);
+            // STOMP keeps the first occurrence of a repeated header
+            if (destination == null && line.startsWith("destination:")) {
+                destination = line.substring("destination:".length());
+            } else if (collapseKey == null && line.startsWith(COLLAPSE_KEY_HEADER + ":")) {
+                collapseKey = line.substring(COLLAPSE_KEY_HEADER.length() + 1);
+            }
+            lineStart = lineEnd + 1;
+        }
+        boolean droppable = destination != null && Arrays.stream(protectedDestinations).noneMatch(destination::equals);
+        return new Frame(message, size, droppable, collapse ? collapseKey : null);
+    }
+
+    private final class QueuedSession extends WebSocketSessionDecorator {
+        private final ArrayDeque<Frame> queue = new ArrayDeque<>();
+        private long queuedBytes;
+        private boolean draining;
+        private boolean closed;
+        private volatile long sendStartedAt;
+        private int droppedFrames;
+        private int maxDepth;
+
+        QueuedSession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        synchronized int depth() {
+            return queue.size();
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            Frame frame = frameOf(message);
+            boolean overflowed = false;
+            boolean startSender = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (frame.collapseKey() != null && removeQueued(frame.collapseKey())) {
+                    collapsed.increment();
+                }
+                queue.addLast(frame);
+                queuedBytes += frame.size();
+                while (queue.size() > queueCapacity || queuedBytes > bufferSizeLimit) {
+                    if (!dropOldest || !dropOldestDroppable()) {
+                        overflowed = true;
+                        break;
+                    }
+                    dropped.increment();
+                    droppedFrames++;
+                }
+                maxDepth = Math.max(maxDepth, queue.size());
+                if (!overflowed && !draining) {
+                    draining = true;
+                    startSender = true;
+                }
+            }
+            if (overflowed) {
+                disconnect(overflowDisconnects, "its outbound queue overflowed");
+            } else if (startSender) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            for (int sent = 0; ; sent++) {
+                Frame frame;
+                synchronized (this) {
+                    frame = queue.pollFirst();
+                    if (frame == null || closed) {
+                        draining = false;
+                        return;
+                    }
+                    if (sent == DRAIN_BATCH) {
+                        // Still draining; the rest goes to the back of the senders' queue
+                        queue.addFirst(frame);
+                        senders.execute(this::drain);
+                        return;
+                    }
+                    queuedBytes -= frame.size();
+                    sendStartedAt = System.nanoTime();
+                }
+                try {
+                    getDelegate().sendMessage(frame.message());
+                } catch (IOException | RuntimeException e) {
+                    sendFailures.increment();
+                    log.debug("Send to WebSocket session {} failed: {}", getId(), e.getMessage());
+                    synchronized (this) {
+                        closed = true;
+                        queue.clear();
+                        draining = false;
+                    }
+                    closeQuietly(CloseStatus.SERVER_ERROR);
+                    return;
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+        }
+
+        private boolean removeQueued(String collapseKey) {
+            for (Iterator<Frame> it = queue.iterator(); it.hasNext(); ) {
+                Frame queued = it.next();
+                if (collapseKey.equals(queued.collapseKey())) {
+                    it.remove();
+                    queuedBytes -= queued.size();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean dropOldestDroppable() {
+            for (Iterator<Frame> it = queue.iterator(); it.hasNext(); ) {
+                Frame queued = it.next();
+                if (queued.droppable()) {
+                    it.remove();
+                    queuedBytes -= queued.size();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void disconnect(Counter reason, String why) {
+            int depth;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                depth = queue.size();
+                queue.clear();
+                queuedBytes = 0;
+            }
+            reason.increment();
+            log.warn("Closing WebSocket session {} because {} ({} frames queued, {} dropped)",
+                    getId(), why, depth, droppedFrames);
+            // Closing writes a close frame, which blocks like any other send to this client
+            closers.execute(() -> closeQuietly(CloseStatus.SESSION_NOT_RELIABLE));
+        }
+
+        private void closeQuietly(CloseStatus status) {
+            try {
+                getDelegate().close(status);
+            } catch (IOException | RuntimeException e) {
+                log.debug("Closing WebSocket session {} failed: {}", getId(), e.getMessage());
+            }
+        }
+
+        synchronized void release() {
+            closed = true;
+            queue.clear();
+            queuedBytes = 0;
+            droppedPerSession.record(droppedFrames);
+            maxDepthPerSession.record(maxDepth);
+        }
+    }
+}
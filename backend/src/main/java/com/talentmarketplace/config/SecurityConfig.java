@@ -1,7 +1,13 @@
 package com.talentmarketplace.config;
 
+import com.talentmarketplace.controller.UploadController;
 import com.talentmarketplace.security.JwtRequestFilter;
+import com.talentmarketplace.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,8 +32,13 @@ public class SecurityConfig {
         http
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
+                // Streaming responses finish on an async dispatch of a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/ws/**").permitAll()
+                .requestMatchers(UploadController.PUBLIC_PATTERNS).permitAll()
+                // Scraped by Prometheus on the management port, which is not published
+                .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -43,8 +54,10 @@ public class SecurityConfig {
         return authConfig.getAuthenticationManager();
     }
 
+    // Each step of the cost doubles the hashing time; see the calibration in the benchmarks module
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${security.password.bcrypt-cost:10}") int cost) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(cost), meterRegistry);
     }
 } 
\ No newline at end of file
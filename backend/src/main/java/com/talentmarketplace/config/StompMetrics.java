@@ -0,0 +1,81 @@
+package com.talentmarketplace.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts STOMP messages by direction and type, and tracks the number of connected sessions.
+ * The same instance intercepts the client inbound and outbound channels; message rates are
+ * the rates of these counters.
+ */
+@Component
+public class StompMetrics {
+    private final Set<String> connectedSessions = ConcurrentHashMap.newKeySet();
+    private final ChannelInterceptor inbound;
+    private final ChannelInterceptor outbound;
+
+    @Autowired
+    public StompMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("stomp.sessions.active", connectedSessions, Set::size)
+            .description("STOMP sessions connected to this node")
+            .register(meterRegistry);
+        inbound = counting("inbound", meterRegistry);
+        outbound = counting("outbound", meterRegistry);
+    }
+
+    public ChannelInterceptor inbound() {
+        return inbound;
+    }
+
+    public ChannelInterceptor outbound() {
+        return outbound;
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        connectedSessions.add(SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders()));
+    }
+
+    // Published once per session, or twice when both client and server close it
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        connectedSessions.remove(event.getSessionId());
+    }
+
+    private static ChannelInterceptor counting(String direction, MeterRegistry meterRegistry) {
+        Map<SimpMessageType, Counter> counters = new EnumMap<>(SimpMessageType.class);
+        for (SimpMessageType type : SimpMessageType.values()) {
+            counters.put(type, Counter.builder("stomp.messages")
+                .description("STOMP messages passing through the client channels")
+                .tag("direction", direction)
+                .tag("type", type.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry));
+        }
+        return new ChannelInterceptor() {
+            @Override
+            public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+                SimpMessageType type = SimpMessageHeaderAccessor.getMessageType(message.getHeaders());
+                if (sent) {
+                    counters.get(type != null ? type : SimpMessageType.OTHER).increment();
+                }
+            }
+        };
+    }
+}
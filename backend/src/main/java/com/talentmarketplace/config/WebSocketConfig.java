@@ -1,19 +1,94 @@
 package com.talentmarketplace.config;
 
+import com.talentmarketplace.security.StompAuthenticationInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    public static final String BROKER_SIMPLE = "simple";
+    public static final String BROKER_RELAY = "relay";
 
+    private final boolean virtualThreads;
+    private final StompAuthenticationInterceptor authenticationInterceptor;
+    private final OutboundFrameQueues outboundFrameQueues;
+    private final StompMetrics stompMetrics;
+
+    @Value("${websocket.broker.mode:" + BROKER_SIMPLE + "}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Autowired
+    public WebSocketConfig(Environment environment, StompAuthenticationInterceptor authenticationInterceptor,
+                           OutboundFrameQueues outboundFrameQueues, StompMetrics stompMetrics) {
+        // Same switch as Tomcat and the task executors: spring.threads.virtual.enabled on Java 21+
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        this.authenticationInterceptor = authenticationInterceptor;
+        this.outboundFrameQueues = outboundFrameQueues;
+        this.stompMetrics = stompMetrics;
+    }
+
+    /**
+     * In {@code simple} mode destinations live in this JVM's in-memory broker, which is enough
+     * for a single node. In {@code relay} mode they are forwarded to an external STOMP broker
+     * shared by all nodes. Each node then broadcasts its local user sessions on a registry
+     * topic, so a message for a user is sent straight to the session queue that the user's
+     * node subscribed to. Only users no node knows about yet fall back to a broadcast that
+     * every node checks against its local sessions.
+     */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic", "/queue");
+        if (BROKER_RELAY.equals(brokerMode)) {
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                    .setUserRegistryBroadcast("/topic/user-registry");
+            if (StringUtils.hasText(relayVirtualHost)) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+        } else if (BROKER_SIMPLE.equals(brokerMode)) {
+            config.enableSimpleBroker("/topic", "/queue");
+        } else {
+            throw new IllegalStateException("Unknown websocket.broker.mode '" + brokerMode
+                    + "', expected " + BROKER_SIMPLE + " or " + BROKER_RELAY);
+        }
         config.setApplicationDestinationPrefixes("/app");
+        if (virtualThreads) {
+            // An unbounded executor would otherwise let messages to one session overtake each other
+            config.setPreservePublishOrder(true);
+        }
     }
 
     @Override
@@ -22,4 +97,30 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setAllowedOrigins("http://localhost:3000")
                 .withSockJS();
     }
-} 
\ No newline at end of file
+
+    // Frames to each session are queued and sent per session, so one slow client cannot stall the outbound channel
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.addDecoratorFactory(outboundFrameQueues);
+    }
+
+    /**
+     * Inbound frames run @MessageMapping handlers that write to the database. With virtual
+     * threads each frame gets its own thread instead of queueing behind a small pool.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(authenticationInterceptor, stompMetrics.inbound());
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompMetrics.outbound());
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-outbound-"));
+        }
+    }
+}
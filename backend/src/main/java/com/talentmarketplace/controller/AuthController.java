@@ -1,36 +1,97 @@
 package com.talentmarketplace.controller;
 
 import com.talentmarketplace.model.User;
+import com.talentmarketplace.service.RefreshTokenService;
 import com.talentmarketplace.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "http://localhost:3000")
 public class AuthController {
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final UserService userService;
+    private final RefreshTokenService refreshTokenService;
 
     @Autowired
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, RefreshTokenService refreshTokenService) {
         this.userService = userService;
+        this.refreshTokenService = refreshTokenService;
     }
 
+    // Both endpoints hash a password; the servlet thread is released while they wait for a hashing thread
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@RequestBody User user) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@RequestBody User user) {
+        return userService.createUser(user)
+            .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+            .exceptionally(AuthController::failure);
+    }
+
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> loginUser(@RequestBody LoginRequest loginRequest) {
+        return userService.authenticate(loginRequest.getEmail(), loginRequest.getPassword())
+            .<ResponseEntity<?>>thenApply(user -> user
+                .<ResponseEntity<?>>map(u -> ResponseEntity.ok(refreshTokenService.issue(u)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid email or password")))
+            .exceptionally(AuthController::failure);
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest refreshRequest) {
         try {
-            User registeredUser = userService.createUser(user);
-            return ResponseEntity.ok(registeredUser);
+            return refreshTokenService.refresh(refreshRequest.getRefreshToken())
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired refresh token"));
         } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
+            log.warn("Refreshing a token failed", e);
+            return ResponseEntity.badRequest().body("The token could not be refreshed");
         }
     }
 
-    @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody LoginRequest loginRequest) {
-        // TODO: Implement JWT token generation and authentication
-        return ResponseEntity.ok().build();
+    // Revokes the bearer token and, if given, the refresh token with every token of its family
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                    @RequestBody(required = false) RefreshRequest refreshRequest) {
+        try {
+            String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+            refreshTokenService.logout(accessToken, refreshRequest != null ? refreshRequest.getRefreshToken() : null);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            log.warn("Logging out failed", e);
+            return ResponseEntity.badRequest().body("Logging out failed");
+        }
+    }
+
+    // Exception messages can carry SQL and internals, so only fixed texts reach the client
+    private static ResponseEntity<?> failure(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Too many sign-ins at the moment, please try again shortly");
+        }
+        if (cause instanceof DuplicateKeyException) {
+            return ResponseEntity.badRequest().body("Email already registered");
+        }
+        if (cause instanceof DataIntegrityViolationException) {
+            return ResponseEntity.badRequest().body("The user data is incomplete or invalid");
+        }
+        log.error("Authentication request failed", cause);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("The request could not be completed");
     }
 }
 
@@ -54,4 +115,16 @@ class LoginRequest {
     public void setPassword(String password) {
         this.password = password;
     }
-} 
\ No newline at end of file
+}
+
+class RefreshRequest {
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -1,43 +1,72 @@
 package com.talentmarketplace.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentmarketplace.dto.CandidateMatch;
+import com.talentmarketplace.dto.CandidateMatchRequest;
+import com.talentmarketplace.dto.CandidateProfileView;
+import com.talentmarketplace.dto.CursorPage;
+import com.talentmarketplace.dto.TextSearchHit;
 import com.talentmarketplace.model.CandidateProfile;
 import com.talentmarketplace.model.User;
 import com.talentmarketplace.model.UserRole;
+import com.talentmarketplace.service.CandidateCatalogVersion;
 import com.talentmarketplace.service.CandidateProfileService;
 import com.talentmarketplace.service.FileStorageService;
+import com.talentmarketplace.service.PhotoVariantService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/candidates")
 @CrossOrigin(origins = "*")
 public class CandidateProfileController {
+    // Polling clients keep the response but check it with If-None-Match before every use
+    private static final String REVALIDATE = CacheControl.noCache().cachePrivate().getHeaderValue();
 
     @Autowired
     private CandidateProfileService candidateProfileService;
 
+    @Autowired
+    private CandidateCatalogVersion catalogVersion;
+
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping("/{userId}")
     public ResponseEntity<?> createProfile(@PathVariable Long userId, @RequestBody CandidateProfile profile) {
         try {
             CandidateProfile createdProfile = candidateProfileService.createProfile(profile, userId);
-            return ResponseEntity.ok(createdProfile);
+            return ResponseEntity.ok(CandidateProfileView.of(createdProfile));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getProfile(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> getProfile(@PathVariable Long id, Authentication authentication,
+                                        ServletWebRequest webRequest) {
         User currentUser = (User) authentication.getPrincipal();
         
         // If the current user is a candidate, they can only view their own profile
@@ -50,7 +79,12 @@ public class CandidateProfileController {
         if (profile == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(profile);
+        // Photo variants are stored without moving the version, so their arrival is part of the tag
+        String variants = profile.getPhotoThumbUrl() != null ? "-v" : "";
+        if (notModified(webRequest, "\"" + profile.getId() + "-" + profile.getVersion() + variants + "\"")) {
+            return null;
+        }
+        return ResponseEntity.ok(CandidateProfileView.of(profile));
     }
 
     @GetMapping("/search")
@@ -58,7 +92,12 @@ public class CandidateProfileController {
             @RequestParam(required = false) String skills,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) String workType,
-            Authentication authentication) {
+            @RequestParam(required = false) String industry,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication,
+            ServletWebRequest webRequest) {
         
         User currentUser = (User) authentication.getPrincipal();
         
@@ -68,13 +107,93 @@ public class CandidateProfileController {
                 .body("Only employers can search for candidates");
         }
 
-        List<CandidateProfile> profiles = candidateProfileService.searchCandidates(skills, location, workType);
-        return ResponseEntity.ok(profiles);
+        // Taken before searching, so a change committed meanwhile is picked up by the next request
+        if (notModified(webRequest, catalogVersion.etag())) {
+            return null;
+        }
+        boolean matchAllSkills = !"any".equalsIgnoreCase(match);
+        CursorPage<CandidateProfileView> page = candidateProfileService.searchCandidatesPage(
+            skills, matchAllSkills, location, workType, industry, after, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/search/text")
+    public ResponseEntity<?> searchText(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        User currentUser = (User) authentication.getPrincipal();
+
+        if (currentUser.getRole() != UserRole.EMPLOYER) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("Only employers can search for candidates");
+        }
+
+        try {
+            List<TextSearchHit> hits = candidateProfileService.searchText(q, size);
+            return ResponseEntity.ok(hits);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/match")
+    public ResponseEntity<?> matchCandidates(@RequestBody CandidateMatchRequest request,
+                                             Authentication authentication) {
+        User currentUser = (User) authentication.getPrincipal();
+
+        if (currentUser.getRole() != UserRole.EMPLOYER) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("Only employers can search for candidates");
+        }
+
+        List<CandidateMatch> matches = candidateProfileService.matchCandidates(request);
+        return ResponseEntity.ok(matches);
+    }
+
+    // Declared with the StreamingResponseBody type so the streaming return value handler picks it up
+    @GetMapping("/search/stream")
+    public ResponseEntity<StreamingResponseBody> streamCandidates(
+            @RequestParam(required = false) String skills,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) String workType,
+            @RequestParam(required = false) String industry,
+            @RequestParam(defaultValue = "all") String match,
+            Authentication authentication) {
+
+        User currentUser = (User) authentication.getPrincipal();
+
+        if (currentUser.getRole() != UserRole.EMPLOYER) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(outputStream -> outputStream.write(
+                    "Only employers can search for candidates".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        boolean matchAllSkills = !"any".equalsIgnoreCase(match);
+        // Written as one JSON array, element by element, so memory does not grow with the result size
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                candidateProfileService.streamCandidates(skills, matchAllSkills, location, workType, industry,
+                    profile -> {
+                        try {
+                            generator.writeObject(profile);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/skill/{skill}")
-    public ResponseEntity<List<CandidateProfile>> findBySkill(@PathVariable String skill) {
-        return ResponseEntity.ok(candidateProfileService.findBySkill(skill));
+    public ResponseEntity<CursorPage<CandidateProfileView>> findBySkill(
+            @PathVariable String skill,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(candidateProfileService.findBySkillPage(skill, after, size));
     }
 
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -94,22 +213,25 @@ public class CandidateProfileController {
         }
 
         try {
-            CandidateProfile profile = candidateProfileService.updateProfile(id, profileJson);
-            
-            // Handle photo upload
+            // Files are stored first, so the profile is then updated in a single transaction
+            String newPhotoUrl = null;
             if (photo != null && !photo.isEmpty()) {
-                String photoUrl = fileStorageService.storeFile(photo, "photos");
-                profile.setPhotoUrl(photoUrl);
+                newPhotoUrl = fileStorageService.storeFile(photo, "photos");
             }
-            
-            // Handle resume upload
+            String resumeUrl = null;
             if (resume != null && !resume.isEmpty()) {
-                String resumeUrl = fileStorageService.storeFile(resume, "resumes");
-                profile.setResumeUrl(resumeUrl);
+                resumeUrl = fileStorageService.storeFile(resume, "resumes");
+            }
+
+            CandidateProfile profile = candidateProfileService.updateProfile(id, profileJson, newPhotoUrl, resumeUrl);
+            if (newPhotoUrl != null) {
+                photoVariantService.generateVariants(profile.getId(), newPhotoUrl);
             }
-            
-            profile = candidateProfileService.save(profile);
-            return ResponseEntity.ok(profile);
+            return ResponseEntity.ok(CandidateProfileView.of(profile));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Another update of the same profile committed while this one was running
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("The profile was changed in the meantime, reload it and try again");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body("Failed to update profile: " + e.getMessage());
@@ -125,4 +247,10 @@ public class CandidateProfileController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    // Sets the ETag; true when the client's copy is current and a 304 without a body has been prepared
+    private static boolean notModified(ServletWebRequest webRequest, String etag) {
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE);
+        return webRequest.checkNotModified(etag);
+    }
+}
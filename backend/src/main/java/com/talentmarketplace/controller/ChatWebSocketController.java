@@ -1,37 +1,82 @@
 package com.talentmarketplace.controller;
 
-import com.talentmarketplace.model.Message;
-import com.talentmarketplace.service.MessageService;
+import com.talentmarketplace.dto.PresenceEvent;
+import com.talentmarketplace.model.PresenceStatus;
+import com.talentmarketplace.service.ChatMessagePipeline;
+import com.talentmarketplace.service.PresenceService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
+import java.util.List;
+
 @Controller
 public class ChatWebSocketController {
+    private static final Logger log = LoggerFactory.getLogger(ChatWebSocketController.class);
 
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private MessageService messageService;
+    private ChatMessagePipeline chatMessagePipeline;
+
+    @Autowired
+    private PresenceService presenceService;
 
     @MessageMapping("/chat")
-    public void processMessage(@Payload ChatMessage chatMessage) {
-        // Save the message to database
-        Message savedMessage = messageService.sendMessage(
+    public void processMessage(@Payload ChatMessage chatMessage, Principal principal) {
+        if (!principal.getName().equals(String.valueOf(chatMessage.getSenderId()))) {
+            throw new RuntimeException("You can only send messages as yourself");
+        }
+        // Queue the message for batched persistence; it is delivered once its batch is committed
+        chatMessagePipeline.enqueue(
             chatMessage.getSenderId(),
             chatMessage.getReceiverId(),
             chatMessage.getContent()
-        );
+        ).whenComplete((savedMessage, error) -> {
+            if (error != null) {
+                log.warn("Dropped chat message from {} to {}: {}",
+                    chatMessage.getSenderId(), chatMessage.getReceiverId(), error.getMessage());
+                return;
+            }
+            presenceService.addPartners(chatMessage.getSenderId(), chatMessage.getReceiverId());
+            // Send the message to the specific user
+            messagingTemplate.convertAndSendToUser(
+                chatMessage.getReceiverId().toString(),
+                "/queue/messages",
+                savedMessage
+            );
+        });
+    }
+
+    @MessageMapping("/typing")
+    public void processTyping(@Payload TypingSignal signal, Principal principal) {
+        presenceService.typing(Long.valueOf(principal.getName()), signal.getReceiverId(), signal.isTyping());
+    }
+
+    @MessageMapping("/presence")
+    public void processPresence(@Payload PresenceSignal signal, Principal principal) {
+        presenceService.setStatus(Long.valueOf(principal.getName()), signal.getStatus());
+    }
 
-        // Send the message to the specific user
-        messagingTemplate.convertAndSendToUser(
-            chatMessage.getReceiverId().toString(),
-            "/queue/messages",
-            savedMessage
-        );
+    // Current status of every partner, sent once in reply to SUBSCRIBE /app/presence
+    @SubscribeMapping("/presence")
+    public List<PresenceEvent> presenceSnapshot(Principal principal) {
+        return presenceService.snapshot(Long.valueOf(principal.getName()));
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public String handleException(RuntimeException e) {
+        return e.getMessage();
     }
 }
 
@@ -64,4 +109,37 @@ class ChatMessage {
     public void setContent(String content) {
         this.content = content;
     }
-} 
\ No newline at end of file
+}
+
+class TypingSignal {
+    private Long receiverId;
+    private boolean typing;
+
+    public Long getReceiverId() {
+        return receiverId;
+    }
+
+    public void setReceiverId(Long receiverId) {
+        this.receiverId = receiverId;
+    }
+
+    public boolean isTyping() {
+        return typing;
+    }
+
+    public void setTyping(boolean typing) {
+        this.typing = typing;
+    }
+}
+
+class PresenceSignal {
+    private PresenceStatus status;
+
+    public PresenceStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PresenceStatus status) {
+        this.status = status;
+    }
+}
@@ -1,10 +1,19 @@
 package com.talentmarketplace.controller;
 
+import com.talentmarketplace.dto.InterviewPipelineSummary;
+import com.talentmarketplace.dto.InterviewRequestView;
+import com.talentmarketplace.dto.InterviewStatusChange;
 import com.talentmarketplace.model.InterviewRequest;
 import com.talentmarketplace.model.InterviewRequestStatus;
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.model.UserRole;
+import com.talentmarketplace.service.InterviewPipelineService;
 import com.talentmarketplace.service.InterviewRequestService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
@@ -13,10 +22,13 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:3000")
 public class InterviewRequestController {
     private final InterviewRequestService interviewRequestService;
+    private final InterviewPipelineService interviewPipelineService;
 
     @Autowired
-    public InterviewRequestController(InterviewRequestService interviewRequestService) {
+    public InterviewRequestController(InterviewRequestService interviewRequestService,
+                                      InterviewPipelineService interviewPipelineService) {
         this.interviewRequestService = interviewRequestService;
+        this.interviewPipelineService = interviewPipelineService;
     }
 
     @PostMapping
@@ -26,29 +38,57 @@ public class InterviewRequestController {
             @RequestParam String message) {
         try {
             InterviewRequest request = interviewRequestService.createRequest(employerId, candidateId, message);
-            return ResponseEntity.ok(request);
+            return ResponseEntity.ok(InterviewRequestView.of(request));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @GetMapping("/employer/{employerId}")
-    public ResponseEntity<List<InterviewRequest>> getEmployerRequests(@PathVariable Long employerId) {
+    public ResponseEntity<List<InterviewRequestView>> getEmployerRequests(@PathVariable Long employerId) {
         return ResponseEntity.ok(interviewRequestService.getEmployerRequests(employerId));
     }
 
     @GetMapping("/candidate/{candidateId}")
-    public ResponseEntity<List<InterviewRequest>> getCandidateRequests(@PathVariable Long candidateId) {
+    public ResponseEntity<List<InterviewRequestView>> getCandidateRequests(@PathVariable Long candidateId) {
         return ResponseEntity.ok(interviewRequestService.getCandidateRequests(candidateId));
     }
 
+    // Request counts by status for a dashboard, read from the maintained summary row
+    @GetMapping("/aggregates/{userId}")
+    public ResponseEntity<InterviewPipelineSummary> getAggregates(@PathVariable Long userId) {
+        return ResponseEntity.ok(interviewPipelineService.getSummary(userId));
+    }
+
     @PutMapping("/{requestId}/status")
     public ResponseEntity<?> updateRequestStatus(
             @PathVariable Long requestId,
-            @RequestParam InterviewRequestStatus status) {
+            @RequestParam InterviewRequestStatus status,
+            @RequestParam(required = false) Long version) {
+        try {
+            InterviewRequest request = interviewRequestService.updateRequestStatus(requestId, status, version);
+            return ResponseEntity.ok(InterviewRequestView.of(request));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("The interview request was changed by someone else, reload it and try again");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Accept, reject or close many of the signed-in employer's requests at once
+    @PutMapping("/status")
+    public ResponseEntity<?> updateRequestStatuses(@RequestBody List<InterviewStatusChange> changes,
+                                                   Authentication authentication) {
+        User currentUser = (User) authentication.getPrincipal();
+
+        if (currentUser.getRole() != UserRole.EMPLOYER) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body("Only employers can change interview requests in bulk");
+        }
+
         try {
-            InterviewRequest request = interviewRequestService.updateRequestStatus(requestId, status);
-            return ResponseEntity.ok(request);
+            return ResponseEntity.ok(interviewRequestService.updateRequestStatuses(currentUser.getId(), changes));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
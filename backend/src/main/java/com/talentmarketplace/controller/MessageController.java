@@ -1,7 +1,10 @@
 package com.talentmarketplace.controller;
 
+import com.talentmarketplace.dto.ConversationSummary;
+import com.talentmarketplace.dto.CursorPage;
+import com.talentmarketplace.dto.MessageView;
+import com.talentmarketplace.dto.UserSummary;
 import com.talentmarketplace.model.Message;
-import com.talentmarketplace.model.User;
 import com.talentmarketplace.service.MessageService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -26,27 +29,63 @@ public class MessageController {
             @RequestParam String content) {
         try {
             Message message = messageService.sendMessage(senderId, receiverId, content);
-            return ResponseEntity.ok(message);
+            return ResponseEntity.ok(MessageView.of(message));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @GetMapping("/conversation")
-    public ResponseEntity<List<Message>> getConversation(
+    public ResponseEntity<CursorPage<MessageView>> getConversation(
             @RequestParam Long userId1,
-            @RequestParam Long userId2) {
-        return ResponseEntity.ok(messageService.getConversation(userId1, userId2));
+            @RequestParam Long userId2,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(messageService.getConversation(userId1, userId2, before, size));
+    }
+
+    @GetMapping("/conversations/{userId}")
+    public ResponseEntity<List<ConversationSummary>> getInbox(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(messageService.getInbox(userId, size));
     }
 
     @GetMapping("/partners/{userId}")
-    public ResponseEntity<List<User>> getConversationPartners(@PathVariable Long userId) {
-        return ResponseEntity.ok(messageService.getConversationPartners(userId));
+    public ResponseEntity<?> getConversationPartners(@PathVariable Long userId) {
+        try {
+            List<UserSummary> partners = messageService.getConversationPartners(userId);
+            return ResponseEntity.ok(partners);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/unread/{userId}")
-    public ResponseEntity<List<Message>> getUnreadMessages(@PathVariable Long userId) {
-        return ResponseEntity.ok(messageService.getUnreadMessages(userId));
+    public ResponseEntity<?> getUnreadMessages(@PathVariable Long userId) {
+        try {
+            List<MessageView> messages = messageService.getUnreadMessages(userId);
+            return ResponseEntity.ok(messages);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/unread/{userId}/count")
+    public ResponseEntity<Long> getUnreadCount(@PathVariable Long userId) {
+        return ResponseEntity.ok(messageService.getUnreadCount(userId));
+    }
+
+    @PutMapping("/conversations/{conversationId}/read")
+    public ResponseEntity<?> markConversationRead(
+            @PathVariable Long conversationId,
+            @RequestParam Long readerId,
+            @RequestParam Long upTo) {
+        try {
+            return ResponseEntity.ok(messageService.markConversationRead(conversationId, readerId, upTo));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PutMapping("/{messageId}/read")
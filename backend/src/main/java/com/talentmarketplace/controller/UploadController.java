@@ -0,0 +1,175 @@
+package com.talentmarketplace.controller;
+
+import com.talentmarketplace.service.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Serves the files behind the {@code /uploads/...} URLs handed out by {@link FileStorageService}.
+ * Responses carry a strong ETag and Last-Modified, conditional requests are answered with 304,
+ * and single byte ranges are honoured so large PDFs can be fetched in parts. Large bodies are
+ * handed to Tomcat's sendfile when the connector supports it, so the kernel copies them from the
+ * page cache to the socket; otherwise they are written with {@link FileChannel#transferTo}.
+ */
+@RestController
+public class UploadController {
+    // Request attributes that make Tomcat send the file itself once the servlet returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Profile photos are shown in <img> tags, which cannot send a bearer token
+    public static final String[] PUBLIC_PATTERNS = {"/uploads/photos/**", "/uploads/photo-variants/**"};
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private static final Duration IMMUTABLE_MAX_AGE = Duration.ofDays(365);
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${file.serve.max-age-seconds:3600}")
+    private long maxAgeSeconds;
+
+    @Value("${file.serve.sendfile-min-size:49152}")
+    private long sendfileMinSize;
+
+    @Autowired
+    public UploadController(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    @GetMapping("/uploads/**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String url = request.getRequestURI().substring(request.getContextPath().length());
+        Path file = url.contains("/.") ? null : fileStorageService.resolvePath(url);
+        if (file == null || !Files.isRegularFile(file)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String hash = FileStorageService.contentHashOf(file);
+        // Stored files are never rewritten, so size and mtime identify the bytes as well as a hash
+        String etag = "\"" + (hash != null ? hash : Long.toHexString(length) + "-" + Long.toHexString(lastModified)) + "\"";
+
+        boolean isPublic = Arrays.stream(PUBLIC_PATTERNS).anyMatch(pattern -> PATH_MATCHER.match(pattern, url));
+        CacheControl cacheControl = hash != null
+            ? CacheControl.maxAge(IMMUTABLE_MAX_AGE).immutable()
+            : CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds));
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+            (isPublic ? cacheControl.cachePublic() : cacheControl.cachePrivate()).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        MediaType mediaType = contentType(file);
+        response.setContentType(mediaType.toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (MediaType.APPLICATION_OCTET_STREAM.equals(mediaType)) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment");
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multi-range requests are rare for downloads; answering them with the whole file is allowed
+            if (ranges.size() == 1) {
+                start = ranges.get(0).getRangeStart(length);
+                end = ranges.get(0).getRangeEnd(length);
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (count >= sendfileMinSize && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // Only types a browser renders harmlessly are served inline; anything else is downloaded
+    private static MediaType contentType(Path file) {
+        MediaType mediaType = MediaTypeFactory.getMediaType(file.getFileName().toString().toLowerCase(Locale.ROOT))
+            .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        boolean inline = "image".equals(mediaType.getType()) && !"svg+xml".equals(mediaType.getSubtype())
+            || MediaType.APPLICATION_PDF.equalsTypeAndSubtype(mediaType)
+            || MediaType.TEXT_PLAIN.equalsTypeAndSubtype(mediaType);
+        return inline ? mediaType : MediaType.APPLICATION_OCTET_STREAM;
+    }
+}
@@ -0,0 +1,13 @@
+package com.talentmarketplace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateMatch {
+    private double score;
+    private CandidateProfileView profile;
+}
@@ -0,0 +1,26 @@
+package com.talentmarketplace.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A ranked search. Candidates must have every required skill; nice-to-have skills, industries,
+ * work type, location, availability and profile recency only raise the score. Required skills
+ * are a plain set, as every ranked candidate has all of them and a weight could not change the
+ * order; nice-to-have skills map from skill name to weight.
+ */
+@Data
+@NoArgsConstructor
+public class CandidateMatchRequest {
+    private Set<String> requiredSkills;
+    private Map<String, Double> niceToHaveSkills;
+    private List<String> industries;
+    private String workType;
+    private String location;
+    private boolean availableOnly;
+    private Integer limit;
+}
@@ -0,0 +1,60 @@
+package com.talentmarketplace.dto;
+
+import com.talentmarketplace.model.CandidateProfile;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandidateProfileView {
+    private Long id;
+    private UserSummary user;
+    private String bio;
+    private List<String> skills;
+    private List<String> experience;
+    private String location;
+    private String phoneNumber;
+    private String linkedInProfile;
+    private String githubProfile;
+    private boolean available;
+    private String expectedSalary;
+    private CandidateProfile.WorkType preferredWorkType;
+    private List<String> preferredIndustries;
+    private String photoUrl;
+    private String photoThumbUrl;
+    private String photoCardUrl;
+    private String photoFullUrl;
+    private String resumeUrl;
+
+    public static CandidateProfileView of(CandidateProfile profile) {
+        return new CandidateProfileView(
+            profile.getId(),
+            UserSummary.of(profile.getUser()),
+            profile.getBio(),
+            copy(profile.getSkills()),
+            copy(profile.getExperience()),
+            profile.getLocation(),
+            profile.getPhoneNumber(),
+            profile.getLinkedInProfile(),
+            profile.getGithubProfile(),
+            profile.isAvailable(),
+            profile.getExpectedSalary(),
+            profile.getPreferredWorkType(),
+            copy(profile.getPreferredIndustries()),
+            profile.getPhotoUrl(),
+            profile.getPhotoThumbUrl(),
+            profile.getPhotoCardUrl(),
+            profile.getPhotoFullUrl(),
+            profile.getResumeUrl());
+    }
+
+    // Copies out of the Hibernate collection so the view is safe to serialize after the session closes
+    private static List<String> copy(List<String> values) {
+        return values != null ? new ArrayList<>(values) : List.of();
+    }
+}
@@ -0,0 +1,23 @@
+package com.talentmarketplace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One inbox entry, seen from the side of the user who requested it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationSummary {
+    private Long id;
+    private Long partnerId;
+    private String partnerFirstName;
+    private String partnerLastName;
+    private Long lastMessageId;
+    private LocalDateTime lastActivityAt;
+    private Integer unreadCount;
+}
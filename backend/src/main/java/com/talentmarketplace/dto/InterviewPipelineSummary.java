@@ -0,0 +1,17 @@
+package com.talentmarketplace.dto;
+
+import com.talentmarketplace.model.InterviewRequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterviewPipelineSummary {
+    private Long userId;
+    private Map<InterviewRequestStatus, Long> counts;
+    private long total;
+}
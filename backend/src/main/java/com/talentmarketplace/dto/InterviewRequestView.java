@@ -0,0 +1,44 @@
+package com.talentmarketplace.dto;
+
+import com.talentmarketplace.model.InterviewRequest;
+import com.talentmarketplace.model.InterviewRequestStatus;
+import com.talentmarketplace.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterviewRequestView {
+    private Long id;
+    private UserSummary employer;
+    private UserSummary candidate;
+    private String message;
+    private InterviewRequestStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    // Flat constructor for JPQL constructor expressions, which cannot build nested objects
+    public InterviewRequestView(Long id,
+                                Long employerId, String employerEmail, String employerFirstName, String employerLastName,
+                                UserRole employerRole,
+                                Long candidateId, String candidateEmail, String candidateFirstName, String candidateLastName,
+                                UserRole candidateRole,
+                                String message, InterviewRequestStatus status,
+                                LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id,
+            new UserSummary(employerId, employerEmail, employerFirstName, employerLastName, employerRole),
+            new UserSummary(candidateId, candidateEmail, candidateFirstName, candidateLastName, candidateRole),
+            message, status, createdAt, updatedAt, version);
+    }
+
+    public static InterviewRequestView of(InterviewRequest request) {
+        return new InterviewRequestView(request.getId(), UserSummary.of(request.getEmployer()),
+            UserSummary.of(request.getCandidate()), request.getMessage(), request.getStatus(),
+            request.getCreatedAt(), request.getUpdatedAt(), request.getVersion());
+    }
+}
@@ -0,0 +1,19 @@
+package com.talentmarketplace.dto;
+
+import com.talentmarketplace.model.InterviewRequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a bulk status change. When a version is given the change only applies if the
+ * request is still at that version.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterviewStatusChange {
+    private Long id;
+    private InterviewRequestStatus status;
+    private Long version;
+}
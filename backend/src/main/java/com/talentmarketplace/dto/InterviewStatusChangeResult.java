@@ -0,0 +1,28 @@
+package com.talentmarketplace.dto;
+
+import com.talentmarketplace.model.InterviewRequestStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of a bulk status change, with the request's status and version after it:
+ * the new ones when updated, the current ones otherwise.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterviewStatusChangeResult {
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        NOT_OWNER,
+        INVALID_TRANSITION,
+        VERSION_CONFLICT
+    }
+
+    private Long id;
+    private Outcome outcome;
+    private InterviewRequestStatus status;
+    private Long version;
+}
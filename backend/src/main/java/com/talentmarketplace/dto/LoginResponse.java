@@ -0,0 +1,19 @@
+package com.talentmarketplace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tokens issued at login and on every refresh. The access token expires after
+ * {@code expiresIn} seconds; the refresh token can be exchanged once for a new pair.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResponse {
+    private String token;
+    private String refreshToken;
+    private long expiresIn;
+    private UserSummary user;
+}
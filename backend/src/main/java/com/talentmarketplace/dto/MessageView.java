@@ -0,0 +1,26 @@
+package com.talentmarketplace.dto;
+
+import com.talentmarketplace.model.Message;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MessageView {
+    private Long id;
+    private Long conversationId;
+    private Long senderId;
+    private Long receiverId;
+    private String content;
+    private LocalDateTime sentAt;
+    private Boolean read;
+
+    public static MessageView of(Message message) {
+        return new MessageView(message.getId(), message.getConversationId(), message.getSender().getId(),
+            message.getReceiver().getId(), message.getContent(), message.getSentAt(), message.isRead());
+    }
+}
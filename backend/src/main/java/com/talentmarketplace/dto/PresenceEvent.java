@@ -0,0 +1,20 @@
+package com.talentmarketplace.dto;
+
+import com.talentmarketplace.model.PresenceStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A conversation partner's presence, sent on {@code /user/queue/presence} when it changes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresenceEvent {
+    private Long userId;
+    private PresenceStatus status;
+    private LocalDateTime at;
+}
@@ -0,0 +1,20 @@
+package com.talentmarketplace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * A full-text hit. {@code highlights} maps a field (bio, experience, resume) to a snippet
+ * with the matched terms wrapped in {@code <b>} tags.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TextSearchHit {
+    private double score;
+    private Map<String, String> highlights;
+    private CandidateProfileView profile;
+}
@@ -0,0 +1,16 @@
+package com.talentmarketplace.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Whether a conversation partner is typing, sent on {@code /user/queue/typing}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TypingEvent {
+    private Long userId;
+    private boolean typing;
+}
@@ -0,0 +1,25 @@
+package com.talentmarketplace.dto;
+
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The public part of a user, embedded in other payloads instead of the {@link User} entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummary {
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private UserRole role;
+
+    public static UserSummary of(User user) {
+        return new UserSummary(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(), user.getRole());
+    }
+}
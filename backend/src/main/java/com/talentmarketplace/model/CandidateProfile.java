@@ -1,15 +1,24 @@
 package com.talentmarketplace.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.talentmarketplace.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.List;
 
 @Entity
 @Table(name = "candidate_profiles")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.CANDIDATE_PROFILES)
+// Only changed columns are written, so an update cannot put back photo variants stored since its load
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,6 +27,7 @@ public class CandidateProfile {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @JsonIgnore
     @OneToOne
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -26,11 +36,13 @@ public class CandidateProfile {
     private String bio;
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.CANDIDATE_PROFILES)
     @CollectionTable(name = "candidate_skills")
     @Column(name = "skill")
     private List<String> skills;
 
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.CANDIDATE_PROFILES)
     @CollectionTable(name = "candidate_experience")
     @Column(name = "experience", columnDefinition = "TEXT")
     private List<String> experience;
@@ -52,6 +64,7 @@ public class CandidateProfile {
     private WorkType preferredWorkType;
     
     @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.CANDIDATE_PROFILES)
     @CollectionTable(name = "candidate_preferred_industries")
     @Column(name = "industry")
     private List<String> preferredIndustries;
@@ -59,9 +72,30 @@ public class CandidateProfile {
     @Column(name = "photo_url")
     private String photoUrl;
 
+    @Column(name = "photo_thumb_url")
+    private String photoThumbUrl;
+
+    @Column(name = "photo_card_url")
+    private String photoCardUrl;
+
+    @Column(name = "photo_full_url")
+    private String photoFullUrl;
+
     @Column(name = "resume_url")
     private String resumeUrl;
 
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    // Identifies the state of the profile in its ETag; the default lets the column be added to existing rows
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
     public enum WorkType {
         REMOTE,
         HYBRID,
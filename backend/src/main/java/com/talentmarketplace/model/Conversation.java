@@ -0,0 +1,48 @@
+package com.talentmarketplace.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Summary row for the conversation between two users. The pair is stored in canonical
+ * order (lower user id first), so each pair has exactly one row; unread counts are kept
+ * per side.
+ */
+@Entity
+@Table(name = "conversations",
+    uniqueConstraints = @UniqueConstraint(name = "uk_conversations_pair", columnNames = {"user_low_id", "user_high_id"}),
+    indexes = {
+        @Index(name = "idx_conversations_low_activity", columnList = "user_low_id, last_activity_at"),
+        @Index(name = "idx_conversations_high_activity", columnList = "user_high_id, last_activity_at")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Conversation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_low_id", nullable = false)
+    private User userLow;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_high_id", nullable = false)
+    private User userHigh;
+
+    @Column(name = "last_message_id")
+    private Long lastMessageId;
+
+    @Column(nullable = false)
+    private LocalDateTime lastActivityAt = LocalDateTime.now();
+
+    @Column(nullable = false)
+    private int unreadLow = 0;
+
+    @Column(nullable = false)
+    private int unreadHigh = 0;
+}
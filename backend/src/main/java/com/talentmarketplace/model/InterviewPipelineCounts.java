@@ -0,0 +1,38 @@
+package com.talentmarketplace.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Number of interview requests per status that a user takes part in, as employer or as
+ * candidate. Kept up to date by {@code InterviewPipelineService} in the same transaction as
+ * every change to {@code interview_requests}; there is one column per
+ * {@link InterviewRequestStatus}, named after it.
+ */
+@Entity
+@Table(name = "interview_pipeline_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InterviewPipelineCounts {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long pending;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long accepted;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long rejected;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long completed;
+
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long cancelled;
+}
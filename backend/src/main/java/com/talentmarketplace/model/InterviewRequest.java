@@ -16,11 +16,11 @@ public class InterviewRequest {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employer_id", nullable = false)
     private User employer;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "candidate_id", nullable = false)
     private User candidate;
 
@@ -36,6 +36,11 @@ public class InterviewRequest {
 
     private LocalDateTime updatedAt = LocalDateTime.now();
 
+    // The default lets the column be added to a table that already has rows
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version = 0L;
+
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
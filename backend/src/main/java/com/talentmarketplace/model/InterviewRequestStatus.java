@@ -1,9 +1,28 @@
 package com.talentmarketplace.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Lifecycle of an interview request: a pending request is accepted, rejected or cancelled, and
+ * an accepted one is completed or cancelled. Rejected, completed and cancelled are final.
+ */
 public enum InterviewRequestStatus {
     PENDING,
     ACCEPTED,
     REJECTED,
     COMPLETED,
-    CANCELLED
-} 
\ No newline at end of file
+    CANCELLED;
+
+    public Set<InterviewRequestStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(ACCEPTED, REJECTED, CANCELLED);
+            case ACCEPTED -> EnumSet.of(COMPLETED, CANCELLED);
+            case REJECTED, COMPLETED, CANCELLED -> EnumSet.noneOf(InterviewRequestStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(InterviewRequestStatus target) {
+        return nextStatuses().contains(target);
+    }
+}
@@ -0,0 +1,7 @@
+package com.talentmarketplace.model;
+
+public enum PresenceStatus {
+    ONLINE,
+    AWAY,
+    OFFLINE
+}
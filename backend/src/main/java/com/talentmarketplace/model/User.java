@@ -1,18 +1,27 @@
 package com.talentmarketplace.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.talentmarketplace.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.security.core.AuthenticatedPrincipal;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USERS)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class User {
+public class User implements AuthenticatedPrincipal {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -21,6 +30,8 @@ public class User {
     private String email;
 
     @Column(nullable = false)
+    @ToString.Exclude
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @Column(nullable = false)
@@ -33,18 +44,34 @@ public class User {
     @Column(nullable = false)
     private UserRole role;
 
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
-    private CandidateProfile candidateProfile;
-
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "employer", cascade = CascadeType.ALL)
     private Set<InterviewRequest> sentInterviewRequests = new HashSet<>();
 
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "candidate", cascade = CascadeType.ALL)
     private Set<InterviewRequest> receivedInterviewRequests = new HashSet<>();
 
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "sender", cascade = CascadeType.ALL)
     private Set<Message> sentMessages = new HashSet<>();
 
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "receiver", cascade = CascadeType.ALL)
     private Set<Message> receivedMessages = new HashSet<>();
-} 
\ No newline at end of file
+
+    // The authenticated principal is the user itself; security logging identifies it by email
+    @Override
+    @JsonIgnore
+    public String getName() {
+        return email;
+    }
+}
\ No newline at end of file
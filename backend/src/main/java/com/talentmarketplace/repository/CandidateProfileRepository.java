@@ -1,31 +1,41 @@
 package com.talentmarketplace.repository;
 
+import com.talentmarketplace.config.HibernateCacheConfig;
 import com.talentmarketplace.model.CandidateProfile;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CandidateProfileRepository extends JpaRepository<CandidateProfile, Long> {
+    @EntityGraph(attributePaths = "user")
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.CANDIDATE_PROFILE_QUERIES)
+    })
     Optional<CandidateProfile> findByUserId(Long userId);
     
-    @Query("SELECT cp FROM CandidateProfile cp WHERE cp.isAvailable = true AND " +
-           "(:location IS NULL OR cp.location = :location) AND " +
-           "(:workType IS NULL OR cp.preferredWorkType = :workType) AND " +
-           "(:industry IS NULL OR :industry MEMBER OF cp.preferredIndustries)")
-    List<CandidateProfile> findAvailableCandidates(String location, String workType, String industry);
-    
-    @Query("SELECT cp FROM CandidateProfile cp WHERE cp.isAvailable = true AND " +
-           "(:skill IS NULL OR :skill MEMBER OF cp.skills)")
-    List<CandidateProfile> findBySkill(String skill);
+    // The user is joined in; the element collections are batch-loaded for the whole page
+    @Query("SELECT cp FROM CandidateProfile cp JOIN FETCH cp.user WHERE cp.id > :afterId ORDER BY cp.id ASC")
+    List<CandidateProfile> findPageAfter(Long afterId, Limit limit);
+
+    @Query("SELECT cp FROM CandidateProfile cp JOIN FETCH cp.user WHERE cp.id IN :ids ORDER BY cp.id ASC")
+    List<CandidateProfile> findAllWithUserByIdIn(Collection<Long> ids);
 
-    List<CandidateProfile> findBySkillsContainingAndLocationContainingAndPreferredWorkType(
-        String skills, String location, String workType);
+    @Query("SELECT cp.id, cp.location, cp.preferredWorkType, cp.isAvailable, cp.updatedAt FROM CandidateProfile cp")
+    List<Object[]> findIndexRows();
 
-    List<CandidateProfile> findByLocationContainingAndPreferredWorkType(
-        String location, String workType);
+    @Query("SELECT cp.id, s FROM CandidateProfile cp JOIN cp.skills s")
+    List<Object[]> findSkillRows();
 
-    List<CandidateProfile> findByPreferredWorkType(String workType);
+    @Query("SELECT cp.id, i FROM CandidateProfile cp JOIN cp.preferredIndustries i")
+    List<Object[]> findIndustryRows();
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.talentmarketplace.repository;
+
+import com.talentmarketplace.dto.ConversationSummary;
+import com.talentmarketplace.model.Conversation;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+    @Query("SELECT c.id FROM Conversation c WHERE c.userLow.id = :userLowId AND c.userHigh.id = :userHighId")
+    Optional<Long> findIdByPair(Long userLowId, Long userHighId);
+
+    @Query("SELECT CASE WHEN c.userLow.id = :userId THEN c.userHigh.id ELSE c.userLow.id END " +
+           "FROM Conversation c WHERE c.userLow.id = :userId OR c.userHigh.id = :userId")
+    List<Long> findPartnerIds(Long userId);
+
+    @Query("SELECT new com.talentmarketplace.dto.ConversationSummary(c.id, " +
+           "CASE WHEN lo.id = :userId THEN hi.id ELSE lo.id END, " +
+           "CASE WHEN lo.id = :userId THEN hi.firstName ELSE lo.firstName END, " +
+           "CASE WHEN lo.id = :userId THEN hi.lastName ELSE lo.lastName END, " +
+           "c.lastMessageId, c.lastActivityAt, " +
+           "CASE WHEN lo.id = :userId THEN c.unreadLow ELSE c.unreadHigh END) " +
+           "FROM Conversation c JOIN c.userLow lo JOIN c.userHigh hi " +
+           "WHERE lo.id = :userId OR hi.id = :userId " +
+           "ORDER BY c.lastActivityAt DESC, c.id DESC")
+    List<ConversationSummary> findInbox(Long userId, Limit limit);
+}
@@ -1,9 +1,11 @@
 package com.talentmarketplace.repository;
 
+import com.talentmarketplace.dto.InterviewRequestView;
 import com.talentmarketplace.model.InterviewRequest;
 import com.talentmarketplace.model.InterviewRequestStatus;
 import com.talentmarketplace.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -13,4 +15,17 @@ public interface InterviewRequestRepository extends JpaRepository<InterviewReque
     List<InterviewRequest> findByCandidate(User candidate);
     List<InterviewRequest> findByEmployerAndStatus(User employer, InterviewRequestStatus status);
     List<InterviewRequest> findByCandidateAndStatus(User candidate, InterviewRequestStatus status);
+
+    String VIEW_SELECT =
+        "SELECT new com.talentmarketplace.dto.InterviewRequestView(r.id, " +
+        "e.id, e.email, e.firstName, e.lastName, e.role, " +
+        "c.id, c.email, c.firstName, c.lastName, c.role, " +
+        "r.message, r.status, r.createdAt, r.updatedAt, r.version) " +
+        "FROM InterviewRequest r JOIN r.employer e JOIN r.candidate c ";
+
+    @Query(VIEW_SELECT + "WHERE e.id = :employerId ORDER BY r.createdAt DESC, r.id DESC")
+    List<InterviewRequestView> findViewsByEmployerId(Long employerId);
+
+    @Query(VIEW_SELECT + "WHERE c.id = :candidateId ORDER BY r.createdAt DESC, r.id DESC")
+    List<InterviewRequestView> findViewsByCandidateId(Long candidateId);
 } 
\ No newline at end of file
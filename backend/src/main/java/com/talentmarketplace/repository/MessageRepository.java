@@ -1,23 +1,30 @@
 package com.talentmarketplace.repository;
 
+import com.talentmarketplace.dto.MessageView;
 import com.talentmarketplace.model.Message;
-import com.talentmarketplace.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
-    @Query("SELECT m FROM Message m WHERE " +
-           "(m.sender = :user1 AND m.receiver = :user2) OR " +
-           "(m.sender = :user2 AND m.receiver = :user1) " +
-           "ORDER BY m.sentAt ASC")
-    List<Message> findConversation(User user1, User user2);
-    
-    List<Message> findByReceiverAndIsReadFalse(User receiver);
-    
-    @Query("SELECT DISTINCT m.sender FROM Message m WHERE m.receiver = :user " +
-           "UNION SELECT DISTINCT m.receiver FROM Message m WHERE m.sender = :user")
-    List<User> findConversationPartners(User user);
-} 
\ No newline at end of file
+    @Query("SELECT new com.talentmarketplace.dto.MessageView(m.id, m.conversationId, m.sender.id, m.receiver.id, " +
+           "m.content, m.sentAt, m.isRead) FROM Message m " +
+           "WHERE m.conversationId = :conversationId AND m.id < :beforeId " +
+           "ORDER BY m.id DESC")
+    List<MessageView> findHistoryPage(Long conversationId, Long beforeId, Limit limit);
+
+    @Query("SELECT new com.talentmarketplace.dto.MessageView(m.id, m.conversationId, m.sender.id, m.receiver.id, " +
+           "m.content, m.sentAt, m.isRead) FROM Message m " +
+           "WHERE m.receiver.id = :receiverId AND m.isRead = false " +
+           "ORDER BY m.id ASC")
+    List<MessageView> findUnreadViews(Long receiverId);
+
+    // Of two concurrent calls for the same message only one updates a row
+    @Modifying
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.id = :messageId AND m.isRead = false")
+    int markReadIfUnread(Long messageId);
+}
@@ -0,0 +1,22 @@
+package com.talentmarketplace.repository;
+
+import com.talentmarketplace.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    @Query("SELECT COUNT(rt) FROM RevokedToken rt WHERE rt.expiresAt > :now")
+    long countUnexpired(LocalDateTime now);
+
+    @Query("SELECT rt.tokenId FROM RevokedToken rt WHERE rt.expiresAt > :now")
+    List<String> findUnexpiredTokenIds(LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedToken rt WHERE rt.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
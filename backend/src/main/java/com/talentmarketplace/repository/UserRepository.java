@@ -1,15 +1,45 @@
 package com.talentmarketplace.repository;
 
+import com.talentmarketplace.config.HibernateCacheConfig;
+import com.talentmarketplace.dto.UserSummary;
 import com.talentmarketplace.model.User;
 import com.talentmarketplace.model.UserRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Cached results are dropped on any write to the users table; new users are the common one
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.USER_QUERIES)
+    })
     Optional<User> findByEmail(String email);
+
     List<User> findByRole(UserRole role);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.USER_QUERIES)
+    })
     boolean existsByEmail(String email);
+
+    // Checked for both parties of every chat message and interview request
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.USER_QUERIES)
+    })
+    @Override
+    boolean existsById(Long id);
+
+    @Query("SELECT new com.talentmarketplace.dto.UserSummary(u.id, u.email, u.firstName, u.lastName, u.role) " +
+           "FROM User u WHERE u.id IN :ids")
+    List<UserSummary> findSummariesByIdIn(Collection<Long> ids);
 } 
\ No newline at end of file
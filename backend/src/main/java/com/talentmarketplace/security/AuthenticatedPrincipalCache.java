@@ -0,0 +1,102 @@
+package com.talentmarketplace.security;
+
+import com.talentmarketplace.model.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of principals whose tokens have already been verified, keyed by the token
+ * subject. Entries expire after a fixed time-to-live and are dropped as soon as the
+ * underlying user changes, so the request filter only goes to the database on a miss.
+ */
+@Component
+public class AuthenticatedPrincipalCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${jwt.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${jwt.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    /**
+     * Returns the cached principal for {@code subject}, loading it with {@code loader} on a
+     * miss. Returns null when the loader finds no user.
+     */
+    public Entry get(String subject, Function<String, User> loader) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(subject);
+        if (entry != null && entry.expiresAt - now > 0) {
+            return entry;
+        }
+
+        User user = loader.apply(subject);
+        if (user == null) {
+            entries.remove(subject);
+            return null;
+        }
+        entry = new Entry(user, now + ttlSeconds * 1_000_000_000L);
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(subject, entry);
+        return entry;
+    }
+
+    public void invalidate(String subject) {
+        entries.remove(subject);
+    }
+
+    public void invalidateUser(Long userId) {
+        entries.values().removeIf(entry -> entry.getUser().getId().equals(userId));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Drops expired entries first; if the cache is still full, drops arbitrary ones until it fits
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    public static class Entry {
+        private final User user;
+        private final List<GrantedAuthority> authorities;
+        private final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.authorities = Collections.singletonList(
+                new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+            this.expiresAt = expiresAt;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public List<GrantedAuthority> getAuthorities() {
+            return authorities;
+        }
+    }
+}
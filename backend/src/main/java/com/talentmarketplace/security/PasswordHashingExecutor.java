@@ -0,0 +1,114 @@
+package com.talentmarketplace.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a small fixed pool behind a bounded queue. BCrypt is deliberately
+ * CPU-bound; on request threads a burst of logins would take every servlet worker and starve
+ * cheap requests. Here hashing uses at most {@code threads} cores, callers wait on a future
+ * rather than a worker, and once the queue is full new work is refused at once instead of
+ * waiting behind work the clients may already have given up on.
+ *
+ * <p>Only the hash runs on these threads. The futures complete on a separate completion pool,
+ * sized for database work rather than cores, so the saves and token inserts chained onto them
+ * never hold a hashing thread. Its queue needs no bound: work only reaches it as fast as the
+ * hashing threads finish.
+ */
+@Component
+public class PasswordHashingExecutor {
+    private final MeterRegistry meterRegistry;
+
+    // 0 means half of the available processors, at least one
+    @Value("${security.password.hashing.threads:0}")
+    private int threads;
+
+    @Value("${security.password.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.password.hashing.completion-threads:10}")
+    private int completionThreads;
+
+    private ThreadPoolExecutor executor;
+    private ExecutorService completions;
+    private Counter rejected;
+    private Timer queueWait;
+
+    @Autowired
+    public PasswordHashingExecutor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        AtomicInteger completionCount = new AtomicInteger();
+        completions = Executors.newFixedThreadPool(completionThreads, runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-completion-" + completionCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("security.password.hashing.queue.depth", queue, BlockingQueue::size)
+            .description("Password hashes waiting for a hashing thread")
+            .register(meterRegistry);
+        rejected = Counter.builder("security.password.hashing.rejected")
+            .description("Logins and registrations refused because the hashing queue was full")
+            .register(meterRegistry);
+        queueWait = Timer.builder("security.password.hashing.wait")
+            .description("Time a password hash waited for a hashing thread")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        completions.shutdown();
+        completions.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs {@code task} on a hashing thread. The future completes on another thread, and fails
+     * with a {@link RejectedExecutionException} right away if the queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            }, executor).thenApplyAsync(Function.identity(), completions);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.talentmarketplace.security;
+
+import com.talentmarketplace.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions from the bearer token in the CONNECT frame's
+ * {@code Authorization} header. The session's user is then the account's id, so user
+ * destinations resolve and the user registry knows which node each user is connected to.
+ * A CONNECT without a valid token is answered with an ERROR frame.
+ */
+@Component
+public class StompAuthenticationInterceptor implements ChannelInterceptor {
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final AuthenticatedPrincipalCache principalCache;
+    private final UserRepository userRepository;
+    private final TokenRevocationList revocationList;
+
+    @Autowired
+    public StompAuthenticationInterceptor(JwtTokenUtil jwtTokenUtil, AuthenticatedPrincipalCache principalCache,
+                                          UserRepository userRepository, TokenRevocationList revocationList) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.principalCache = principalCache;
+        this.userRepository = userRepository;
+        this.revocationList = revocationList;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+
+        String authorizationHeader = accessor.getFirstNativeHeader("Authorization");
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            throw new MessagingException(message, "Missing bearer token");
+        }
+        AuthenticatedPrincipalCache.Entry principal;
+        try {
+            Claims claims = jwtTokenUtil.parseClaims(authorizationHeader.substring(7));
+            if (revocationList.isRevoked(claims.getId())) {
+                throw new MessagingException(message, "Revoked bearer token");
+            }
+            principal = principalCache.get(claims.getSubject(),
+                    email -> userRepository.findByEmail(email).orElse(null));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new MessagingException(message, "Invalid bearer token");
+        }
+        if (principal == null) {
+            throw new MessagingException(message, "Unknown user");
+        }
+        accessor.setUser(new UserIdPrincipal(principal.getUser().getId()));
+        return message;
+    }
+}
@@ -0,0 +1,133 @@
+package com.talentmarketplace.security;
+
+import com.talentmarketplace.model.RevokedToken;
+import com.talentmarketplace.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ids of revoked access tokens that have not expired yet. They are kept in the revoked_tokens
+ * table and, for the per-request check, in an in-memory Bloom filter: a token that is not in
+ * the filter is certainly not revoked, so the common case never reaches the database. Only a
+ * hit, which is nearly always a token that really was revoked, is confirmed against the table.
+ *
+ * <p>The filter is rebuilt from the table on a fixed delay. That drops expired ids, and picks
+ * up tokens revoked on other nodes, which are accepted here until the next rebuild.
+ */
+@Component
+public class TokenRevocationList {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Counter revokedHits;
+    private final Counter falsePositives;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // While a rebuild loads the table, new revocations go into the filter being built as well
+    private BloomFilter building;
+
+    @Autowired
+    public TokenRevocationList(RevokedTokenRepository revokedTokenRepository, MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.revokedHits = Counter.builder("security.jwt.revocation.hits")
+            .description("Requests with an access token that had been revoked")
+            .register(meterRegistry);
+        this.falsePositives = Counter.builder("security.jwt.revocation.false.positives")
+            .description("Filter hits for tokens that had not been revoked, each costing a database lookup")
+            .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        if (revokedTokenRepository.existsById(tokenId)) {
+            revokedHits.increment();
+            return true;
+        }
+        falsePositives.increment();
+        return false;
+    }
+
+    /**
+     * Revokes the access token with id {@code tokenId} until it expires at {@code expiresAt}.
+     * Within a transaction the filter learns of it once the row is committed.
+     */
+    @Transactional
+    public void revoke(String tokenId, LocalDateTime expiresAt) {
+        if (!expiresAt.isAfter(LocalDateTime.now()) || revokedTokenRepository.existsById(tokenId)) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(tokenId, expiresAt, LocalDateTime.now()));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(tokenId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(tokenId);
+            }
+        });
+    }
+
+    private synchronized void add(String tokenId) {
+        filter.add(tokenId);
+        if (building != null) {
+            building.add(tokenId);
+        }
+    }
+
+    // Built before the first request, so tokens revoked before a restart stay revoked
+    @PostConstruct
+    @Scheduled(initialDelayString = "${jwt.revocation.rebuild-interval-ms:30000}",
+        fixedDelayString = "${jwt.revocation.rebuild-interval-ms:30000}")
+    public void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        // Twice the current count leaves room for the revocations until the next rebuild
+        BloomFilter next = new BloomFilter(Math.max(expectedEntries, 2 * revokedTokenRepository.countUnexpired(now)),
+            falsePositiveRate);
+        synchronized (this) {
+            building = next;
+        }
+        try {
+            List<String> tokenIds = revokedTokenRepository.findUnexpiredTokenIds(now);
+            for (String tokenId : tokenIds) {
+                next.add(tokenId);
+            }
+            synchronized (this) {
+                filter = next;
+            }
+            log.debug("Rebuilt the token revocation filter with {} ids", tokenIds.size());
+        } finally {
+            synchronized (this) {
+                building = null;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 15 3 * * *}")
+    @Transactional
+    public int purgeExpired() {
+        return revokedTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,40 @@
+package com.talentmarketplace.security;
+
+import java.security.Principal;
+import java.util.Objects;
+
+/**
+ * Principal of an authenticated STOMP session. Its name is the user id, which is what
+ * {@code convertAndSendToUser} and {@code /user/...} destinations are addressed by.
+ */
+public final class UserIdPrincipal implements Principal {
+    private final Long userId;
+
+    public UserIdPrincipal(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof UserIdPrincipal that && userId.equals(that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(userId);
+    }
+
+    @Override
+    public String toString() {
+        return "UserIdPrincipal[" + userId + "]";
+    }
+}
@@ -0,0 +1,38 @@
+package com.talentmarketplace.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the candidate catalog, bumped after every committed profile change and used as
+ * the ETag of search results. Like the in-memory search index that answers the searches, it is
+ * local to this process; the random prefix keeps the tags of one process, or of the same node
+ * before a restart, from ever matching another's.
+ */
+@Component
+public class CandidateCatalogVersion {
+    private final String epoch = Long.toHexString(new SecureRandom().nextLong());
+    private final AtomicLong version = new AtomicLong();
+
+    public String etag() {
+        return "\"catalog-" + epoch + "-" + version.get() + "\"";
+    }
+
+    // Bumping before the commit could tag the old rows with the new version
+    public void bump() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            version.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                version.incrementAndGet();
+            }
+        });
+    }
+}
@@ -0,0 +1,258 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.dto.CandidateMatchRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Ranks candidates from the in-memory search index. The pool is the intersection of the
+ * required skill postings; every profile in it is scored by probing the other postings
+ * bitmaps, and only the best {@code k} are kept in a bounded min-heap. Large pools are split
+ * by id range across the common fork-join pool and the partial heaps merged.
+ */
+@Component
+public class CandidateMatchingEngine {
+
+    // Best last: the head of the heap is the weakest match kept so far
+    private static final Comparator<ScoredCandidate> WORST_FIRST = Comparator
+        .comparingDouble(ScoredCandidate::getScore)
+        .thenComparing(ScoredCandidate::getProfileId, Comparator.reverseOrder());
+
+    private final CandidateSearchIndex searchIndex;
+
+    @Value("${candidates.match.industry-weight:1.0}")
+    private double industryWeight;
+
+    @Value("${candidates.match.work-type-weight:1.0}")
+    private double workTypeWeight;
+
+    @Value("${candidates.match.location-weight:1.0}")
+    private double locationWeight;
+
+    @Value("${candidates.match.availability-weight:1.0}")
+    private double availabilityWeight;
+
+    @Value("${candidates.match.recency-weight:1.0}")
+    private double recencyWeight;
+
+    @Value("${candidates.match.recency-half-life-days:30}")
+    private double recencyHalfLifeDays;
+
+    @Value("${candidates.match.split-size:65536}")
+    private int splitSize;
+
+    @Autowired
+    public CandidateMatchingEngine(CandidateSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    /**
+     * Returns at most {@code k} candidates ordered by descending score, ties broken by id.
+     */
+    public List<ScoredCandidate> topMatches(CandidateMatchRequest request, int k) {
+        return searchIndex.read(() -> {
+            Scorer scorer = new Scorer(request);
+            BitSet pool = scorer.pool();
+            PriorityQueue<ScoredCandidate> heap;
+            if (pool.length() <= splitSize) {
+                heap = scorer.score(pool, 0, pool.length(), k);
+            } else {
+                heap = ForkJoinPool.commonPool().invoke(new ScoreTask(scorer, pool, 0, pool.length(), k));
+            }
+            List<ScoredCandidate> ranked = new ArrayList<>(heap);
+            ranked.sort(WORST_FIRST.reversed());
+            return ranked;
+        });
+    }
+
+    /**
+     * The per-request scoring state, resolved from the index once so the per-profile loop only
+     * probes bitmaps and adds weights.
+     */
+    private class Scorer {
+        private final BitSet pool;
+        private final BitSet[] bonusPostings;
+        private final double[] bonusWeights;
+        private final BitSet available;
+        private final long now;
+        private final double decayPerMilli;
+
+        Scorer(CandidateMatchRequest request) {
+            BitSet candidates = (BitSet) (request.isAvailableOnly()
+                ? searchIndex.availableProfiles() : searchIndex.allProfiles()).clone();
+            // Every candidate in the pool has all of them, so they filter but do not score
+            for (String skill : nonBlank(request.getRequiredSkills())) {
+                candidates.and(searchIndex.skillPostings(skill));
+            }
+            this.pool = candidates;
+
+            List<BitSet> postings = new ArrayList<>();
+            List<Double> weights = new ArrayList<>();
+            for (Map.Entry<String, Double> skill : entries(request.getNiceToHaveSkills())) {
+                postings.add(searchIndex.skillPostings(skill.getKey()));
+                weights.add(weight(skill.getValue()));
+            }
+            List<String> industries = nonBlank(request.getIndustries());
+            for (String industry : industries) {
+                postings.add(searchIndex.industryPostings(industry));
+                weights.add(industryWeight / industries.size());
+            }
+            if (hasText(request.getWorkType())) {
+                postings.add(searchIndex.workTypePostings(request.getWorkType()));
+                weights.add(workTypeWeight);
+            }
+            if (hasText(request.getLocation())) {
+                postings.add(searchIndex.locationPostings(request.getLocation()));
+                weights.add(locationWeight);
+            }
+            this.bonusPostings = postings.toArray(new BitSet[0]);
+            this.bonusWeights = weights.stream().mapToDouble(Double::doubleValue).toArray();
+            this.available = searchIndex.availableProfiles();
+            this.now = LocalDateTime.now().toInstant(ZoneOffset.UTC).toEpochMilli();
+            this.decayPerMilli = Math.log(2) / (recencyHalfLifeDays * 86_400_000d);
+        }
+
+        BitSet pool() {
+            return pool;
+        }
+
+        PriorityQueue<ScoredCandidate> score(BitSet pool, int from, int to, int k) {
+            PriorityQueue<ScoredCandidate> heap = new PriorityQueue<>(k + 1, WORST_FIRST);
+            for (int id = pool.nextSetBit(from); id >= 0 && id < to; id = pool.nextSetBit(id + 1)) {
+                double score = score(id);
+                if (heap.size() < k) {
+                    heap.add(new ScoredCandidate(id, score));
+                } else if (score > heap.peek().getScore()) {
+                    heap.poll();
+                    heap.add(new ScoredCandidate(id, score));
+                }
+            }
+            return heap;
+        }
+
+        private double score(int id) {
+            double score = 0;
+            for (int i = 0; i < bonusPostings.length; i++) {
+                if (bonusPostings[i].get(id)) {
+                    score += bonusWeights[i];
+                }
+            }
+            if (available.get(id)) {
+                score += availabilityWeight;
+            }
+            long updatedAt = searchIndex.updatedAtMillis(id);
+            if (updatedAt > 0) {
+                score += recencyWeight * Math.exp(-Math.max(now - updatedAt, 0) * decayPerMilli);
+            }
+            return score;
+        }
+    }
+
+    // Only runs within one request; never serialized, so it needs no serialVersionUID
+    @SuppressWarnings("serial")
+    private class ScoreTask extends RecursiveTask<PriorityQueue<ScoredCandidate>> {
+        private final Scorer scorer;
+        private final BitSet pool;
+        private final int from;
+        private final int to;
+        private final int k;
+
+        ScoreTask(Scorer scorer, BitSet pool, int from, int to, int k) {
+            this.scorer = scorer;
+            this.pool = pool;
+            this.from = from;
+            this.to = to;
+            this.k = k;
+        }
+
+        @Override
+        protected PriorityQueue<ScoredCandidate> compute() {
+            if (to - from <= splitSize) {
+                return scorer.score(pool, from, to, k);
+            }
+            int middle = from + (to - from) / 2;
+            ScoreTask left = new ScoreTask(scorer, pool, from, middle, k);
+            left.fork();
+            PriorityQueue<ScoredCandidate> right = new ScoreTask(scorer, pool, middle, to, k).compute();
+            return merge(left.join(), right, k);
+        }
+    }
+
+    private static PriorityQueue<ScoredCandidate> merge(PriorityQueue<ScoredCandidate> a,
+                                                        PriorityQueue<ScoredCandidate> b, int k) {
+        PriorityQueue<ScoredCandidate> into = a.size() >= b.size() ? a : b;
+        PriorityQueue<ScoredCandidate> from = into == a ? b : a;
+        for (ScoredCandidate candidate : from) {
+            if (into.size() < k) {
+                into.add(candidate);
+            } else if (WORST_FIRST.compare(candidate, into.peek()) > 0) {
+                into.poll();
+                into.add(candidate);
+            }
+        }
+        return into;
+    }
+
+    private static List<Map.Entry<String, Double>> entries(Map<String, Double> weights) {
+        List<Map.Entry<String, Double>> entries = new ArrayList<>();
+        if (weights != null) {
+            for (Map.Entry<String, Double> entry : weights.entrySet()) {
+                if (hasText(entry.getKey())) {
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private static List<String> nonBlank(Collection<String> terms) {
+        List<String> result = new ArrayList<>();
+        if (terms != null) {
+            for (String term : terms) {
+                if (hasText(term)) {
+                    result.add(term);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double weight(Double weight) {
+        return weight != null ? weight : 1.0;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    public static class ScoredCandidate {
+        private final long profileId;
+        private final double score;
+
+        ScoredCandidate(long profileId, double score) {
+            this.profileId = profileId;
+            this.score = score;
+        }
+
+        public long getProfileId() {
+            return profileId;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
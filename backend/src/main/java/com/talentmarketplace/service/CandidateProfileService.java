@@ -1,35 +1,138 @@
 package com.talentmarketplace.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentmarketplace.config.HibernateCacheConfig;
+import com.talentmarketplace.dto.CandidateMatch;
+import com.talentmarketplace.dto.CandidateMatchRequest;
+import com.talentmarketplace.dto.CandidateProfileView;
+import com.talentmarketplace.dto.CursorPage;
+import com.talentmarketplace.dto.TextSearchHit;
 import com.talentmarketplace.model.CandidateProfile;
 import com.talentmarketplace.model.User;
 import com.talentmarketplace.repository.CandidateProfileRepository;
 import com.talentmarketplace.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class CandidateProfileService {
+    private static final int STREAM_CHUNK_SIZE = 256;
+
+    // Matching on the photo URL drops variants of a photo that has been replaced in the meantime
+    private static final String UPDATE_PHOTO_VARIANTS =
+        "UPDATE candidate_profiles SET photo_thumb_url = ?, photo_card_url = ?, photo_full_url = ? " +
+        "WHERE id = ? AND photo_url = ?";
+
     private final CandidateProfileRepository candidateProfileRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final CandidateSearchIndex searchIndex;
+    private final CandidateMatchingEngine matchingEngine;
+    private final ProfileTextIndex textIndex;
+    private final ProfileTextIndexer textIndexer;
+    private final CandidateCatalogVersion catalogVersion;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${candidates.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${candidates.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${candidates.match.max-limit:200}")
+    private int maxMatchLimit;
 
     @Autowired
-    public CandidateProfileService(CandidateProfileRepository candidateProfileRepository, UserRepository userRepository, ObjectMapper objectMapper) {
+    public CandidateProfileService(CandidateProfileRepository candidateProfileRepository, UserRepository userRepository,
+                                   ObjectMapper objectMapper, CandidateSearchIndex searchIndex,
+                                   CandidateMatchingEngine matchingEngine, ProfileTextIndex textIndex,
+                                   ProfileTextIndexer textIndexer, CandidateCatalogVersion catalogVersion,
+                                   JdbcTemplate jdbcTemplate) {
         this.candidateProfileRepository = candidateProfileRepository;
         this.userRepository = userRepository;
         this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
+        this.matchingEngine = matchingEngine;
+        this.textIndex = textIndex;
+        this.textIndexer = textIndexer;
+        this.catalogVersion = catalogVersion;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildSearchIndex() {
+        Map<Long, List<String>> skills = groupByProfile(candidateProfileRepository.findSkillRows());
+        Map<Long, List<String>> industries = groupByProfile(candidateProfileRepository.findIndustryRows());
+
+        List<CandidateSearchIndex.IndexedProfile> profiles = new ArrayList<>();
+        for (Object[] row : candidateProfileRepository.findIndexRows()) {
+            Long id = (Long) row[0];
+            CandidateProfile.WorkType workType = (CandidateProfile.WorkType) row[2];
+            profiles.add(new CandidateSearchIndex.IndexedProfile(
+                id,
+                skills.getOrDefault(id, List.of()),
+                industries.getOrDefault(id, List.of()),
+                (String) row[1],
+                workType != null ? workType.name() : null,
+                (Boolean) row[3],
+                (LocalDateTime) row[4]));
+        }
+        searchIndex.rebuild(profiles);
+    }
+
+    /**
+     * Populates the full-text index from the database when it is empty, e.g. on first start.
+     * The index is on disk, so later starts skip this.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void populateTextIndex() {
+        if (!textIndex.isEmpty()) {
+            return;
+        }
+        long cursor = 0L;
+        List<CandidateProfile> chunk;
+        while (!(chunk = candidateProfileRepository.findPageAfter(cursor, Limit.of(STREAM_CHUNK_SIZE))).isEmpty()) {
+            textIndex.indexAll(chunk);
+            entityManager.clear();
+            cursor = chunk.get(chunk.size() - 1).getId();
+        }
     }
 
     public CandidateProfile createProfile(CandidateProfile profile, Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new RuntimeException("User not found"));
         profile.setUser(user);
-        return candidateProfileRepository.save(profile);
+        CandidateProfile savedProfile = candidateProfileRepository.save(profile);
+        indexAfterCommit(savedProfile);
+        catalogVersion.bump();
+        return savedProfile;
     }
 
     public CandidateProfile findByUserId(Long userId) {
@@ -37,15 +140,11 @@ public class CandidateProfileService {
             .orElse(null);
     }
 
-    public List<CandidateProfile> findAvailableCandidates(String location, String workType, String industry) {
-        return candidateProfileRepository.findAvailableCandidates(location, workType, industry);
-    }
-
-    public List<CandidateProfile> findBySkill(String skill) {
-        return candidateProfileRepository.findBySkill(skill);
-    }
-
-    public CandidateProfile updateProfile(Long userId, String profileJson) {
+    /**
+     * Applies the profile fields and, when not null, the URLs of a newly stored photo and resume
+     * in one transaction, so that a version conflict leaves the profile entirely unchanged.
+     */
+    public CandidateProfile updateProfile(Long userId, String profileJson, String photoUrl, String resumeUrl) {
         try {
             CandidateProfile existingProfile = findByUserId(userId);
             if (existingProfile == null) {
@@ -65,31 +164,253 @@ public class CandidateProfileService {
             existingProfile.setExpectedSalary(updatedProfile.getExpectedSalary());
             existingProfile.setPreferredWorkType(updatedProfile.getPreferredWorkType());
             existingProfile.setPreferredIndustries(updatedProfile.getPreferredIndustries());
+            // Variants landing after the profile was loaded are not in this copy, which is cached on commit
+            boolean variantsPending = photoUrl == null && existingProfile.getPhotoUrl() != null
+                && existingProfile.getPhotoThumbUrl() == null;
+            if (photoUrl != null) {
+                // Resized variants of the new photo are generated in the background
+                existingProfile.setPhotoUrl(photoUrl);
+                existingProfile.setPhotoThumbUrl(null);
+                existingProfile.setPhotoCardUrl(null);
+                existingProfile.setPhotoFullUrl(null);
+            }
+            if (resumeUrl != null) {
+                existingProfile.setResumeUrl(resumeUrl);
+            }
+            // Set here as well as in @PreUpdate so the search index sees the new time before the flush
+            existingProfile.setUpdatedAt(LocalDateTime.now());
 
-            return candidateProfileRepository.save(existingProfile);
+            CandidateProfile savedProfile = candidateProfileRepository.save(existingProfile);
+            indexAfterCommit(savedProfile);
+            if (variantsPending) {
+                afterCommit(() -> evictProfile(savedProfile.getId()));
+            }
+            catalogVersion.bump();
+            return savedProfile;
         } catch (Exception e) {
             throw new RuntimeException("Failed to update profile: " + e.getMessage());
         }
     }
 
+    /**
+     * Stores the resized variants of a photo, unless the profile's photo has changed since.
+     * They are system-owned, so they are written without moving the profile's version and
+     * cannot make a concurrent user update of the profile fail. Returns whether they were stored.
+     */
+    public boolean updatePhotoVariants(Long profileId, String photoUrl, String thumbUrl, String cardUrl,
+                                       String fullUrl) {
+        // Past Hibernate, whose bulk updates would evict every cached profile rather than this one
+        if (jdbcTemplate.update(UPDATE_PHOTO_VARIANTS, thumbUrl, cardUrl, fullUrl, profileId, photoUrl) == 0) {
+            return false;
+        }
+        afterCommit(() -> evictProfile(profileId));
+        catalogVersion.bump();
+        return true;
+    }
+
     public void deleteProfile(Long id) {
         candidateProfileRepository.deleteById(id);
+        afterCommit(() -> {
+            searchIndex.remove(id);
+            textIndexer.enqueue(id);
+        });
+        catalogVersion.bump();
+    }
+
+    /**
+     * Moves the version of the user's profile on, if there is one, so that cached copies of the
+     * profile revalidate after a change to the name or email embedded in them.
+     */
+    public void userChanged(Long userId) {
+        candidateProfileRepository.findByUserId(userId).ifPresent(profile -> {
+            entityManager.lock(profile, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+            catalogVersion.bump();
+        });
     }
 
     public CandidateProfile save(CandidateProfile profile) {
-        return candidateProfileRepository.save(profile);
+        profile.setUpdatedAt(LocalDateTime.now());
+        CandidateProfile savedProfile = candidateProfileRepository.save(profile);
+        indexAfterCommit(savedProfile);
+        catalogVersion.bump();
+        return savedProfile;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<CandidateProfileView> searchCandidatesPage(String skills, boolean matchAllSkills, String location,
+                                                                 String workType, String industry, Long after, Integer size) {
+        int pageSize = pageSize(size);
+        long cursor = after != null ? after : 0L;
+        if (!hasFilters(skills, location, workType, industry)) {
+            return toPage(candidateProfileRepository.findPageAfter(cursor, Limit.of(pageSize + 1)), pageSize);
+        }
+        BitSet matches = searchIndex.match(
+            CandidateSearchIndex.splitTerms(skills), matchAllSkills, location, workType, industry, false);
+        return toPage(loadProfiles(CandidateSearchIndex.toIds(matches, cursor, pageSize + 1)), pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<CandidateProfileView> findBySkillPage(String skill, Long after, Integer size) {
+        int pageSize = pageSize(size);
+        BitSet matches = searchIndex.match(CandidateSearchIndex.splitTerms(skill), true, null, null, null, true);
+        long cursor = after != null ? after : 0L;
+        return toPage(loadProfiles(CandidateSearchIndex.toIds(matches, cursor, pageSize + 1)), pageSize);
+    }
+
+    /**
+     * Full-text search over bio, experience and resume text, best BM25 score first.
+     */
+    @Transactional(readOnly = true)
+    public List<TextSearchHit> searchText(String query, Integer size) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        List<ProfileTextIndex.Hit> hits = textIndex.search(query, pageSize(size));
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (ProfileTextIndex.Hit hit : hits) {
+            ids.add(hit.getProfileId());
+        }
+        Map<Long, CandidateProfile> profiles = new HashMap<>();
+        for (CandidateProfile profile : loadProfiles(ids)) {
+            profiles.put(profile.getId(), profile);
+        }
+
+        List<TextSearchHit> results = new ArrayList<>(hits.size());
+        for (ProfileTextIndex.Hit hit : hits) {
+            CandidateProfile profile = profiles.get(hit.getProfileId());
+            if (profile != null) {
+                results.add(new TextSearchHit(hit.getScore(), hit.getHighlights(), CandidateProfileView.of(profile)));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the best-scoring candidates for the request, highest score first.
+     */
+    @Transactional(readOnly = true)
+    public List<CandidateMatch> matchCandidates(CandidateMatchRequest request) {
+        Integer limit = request.getLimit();
+        int k = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxMatchLimit);
+        List<CandidateMatchingEngine.ScoredCandidate> ranked = matchingEngine.topMatches(request, k);
+
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (CandidateMatchingEngine.ScoredCandidate candidate : ranked) {
+            ids.add(candidate.getProfileId());
+        }
+        Map<Long, CandidateProfile> profiles = new HashMap<>();
+        for (CandidateProfile profile : loadProfiles(ids)) {
+            profiles.put(profile.getId(), profile);
+        }
+
+        List<CandidateMatch> matches = new ArrayList<>(ranked.size());
+        for (CandidateMatchingEngine.ScoredCandidate candidate : ranked) {
+            CandidateProfile profile = profiles.get(candidate.getProfileId());
+            // A profile deleted since it was ranked is simply left out
+            if (profile != null) {
+                matches.add(new CandidateMatch(candidate.getScore(), CandidateProfileView.of(profile)));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Hands every matching profile to {@code consumer} in id order while holding at most one
+     * chunk of entities in the persistence context. Without filters the chunks are read by
+     * keyset straight from the table; each chunk costs a fixed number of queries because its
+     * element collections are batch-loaded together.
+     */
+    @Transactional(readOnly = true)
+    public void streamCandidates(String skills, boolean matchAllSkills, String location, String workType,
+                                 String industry, Consumer<CandidateProfileView> consumer) {
+        if (!hasFilters(skills, location, workType, industry)) {
+            long cursor = 0L;
+            List<CandidateProfile> chunk;
+            while (!(chunk = candidateProfileRepository.findPageAfter(cursor, Limit.of(STREAM_CHUNK_SIZE))).isEmpty()) {
+                chunk.forEach(profile -> consumer.accept(CandidateProfileView.of(profile)));
+                entityManager.clear();
+                cursor = chunk.get(chunk.size() - 1).getId();
+            }
+            return;
+        }
+
+        BitSet matches = searchIndex.match(
+            CandidateSearchIndex.splitTerms(skills), matchAllSkills, location, workType, industry, false);
+        long cursor = 0L;
+        List<Long> ids;
+        while (!(ids = CandidateSearchIndex.toIds(matches, cursor, STREAM_CHUNK_SIZE)).isEmpty()) {
+            loadProfiles(ids).forEach(profile -> consumer.accept(CandidateProfileView.of(profile)));
+            entityManager.clear();
+            cursor = ids.get(ids.size() - 1);
+        }
+    }
+
+    private int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    private static boolean hasFilters(String skills, String location, String workType, String industry) {
+        return !CandidateSearchIndex.splitTerms(skills).isEmpty()
+            || (location != null && !location.isBlank())
+            || (workType != null && !workType.isBlank())
+            || (industry != null && !industry.isBlank());
+    }
+
+    private static CursorPage<CandidateProfileView> toPage(List<CandidateProfile> rows, int pageSize) {
+        List<CandidateProfileView> items = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (CandidateProfile profile : rows.subList(0, Math.min(rows.size(), pageSize))) {
+            items.add(CandidateProfileView.of(profile));
+        }
+        Long nextCursor = rows.size() > pageSize ? items.get(pageSize - 1).getId() : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private List<CandidateProfile> loadProfiles(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return candidateProfileRepository.findAllWithUserByIdIn(ids);
+    }
+
+    // The search terms are taken now, while the profile is attached; the full-text index reloads it in the background
+    private void indexAfterCommit(CandidateProfile profile) {
+        CandidateSearchIndex.IndexedProfile indexed = CandidateSearchIndex.IndexedProfile.of(profile);
+        Long profileId = profile.getId();
+        afterCommit(() -> {
+            searchIndex.index(indexed);
+            textIndexer.enqueue(profileId);
+        });
+    }
+
+    // The cached lookup by user holds the row data as well, and Hibernate does not see writes made past it
+    private void evictProfile(Long profileId) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        cache.evictEntityData(CandidateProfile.class, profileId);
+        cache.evictQueryRegion(HibernateCacheConfig.CANDIDATE_PROFILE_QUERIES);
+    }
+
+    // The indexes are shared by all requests, so they must not see writes that later roll back
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
-    public List<CandidateProfile> searchCandidates(String skills, String location, String workType) {
-        if (skills != null && !skills.isEmpty()) {
-            return candidateProfileRepository.findBySkillsContainingAndLocationContainingAndPreferredWorkType(
-                skills, location, workType);
-        } else if (location != null && !location.isEmpty()) {
-            return candidateProfileRepository.findByLocationContainingAndPreferredWorkType(
-                location, workType);
-        } else if (workType != null && !workType.isEmpty()) {
-            return candidateProfileRepository.findByPreferredWorkType(workType);
+    private static Map<Long, List<String>> groupByProfile(Collection<Object[]> rows) {
+        Map<Long, List<String>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            grouped.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
         }
-        return candidateProfileRepository.findAll();
+        return grouped;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,389 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.model.CandidateProfile;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process inverted index over candidate profiles. Every normalized skill, industry,
+ * work type and location term maps to a bitmap of profile ids, so boolean searches are
+ * answered by intersecting or unioning bitmaps instead of scanning the element collection
+ * tables. The index only stores ids; callers load the matching rows by primary key.
+ *
+ * <p>Locations match by substring, as the {@code LIKE} search they replace did: "york" finds
+ * "New York, NY". A location filter ORs the postings of every indexed location that contains
+ * it; there are far fewer distinct locations than profiles.
+ */
+@Component
+public class CandidateSearchIndex {
+
+    private final Map<String, BitSet> skills = new HashMap<>();
+    private final Map<String, BitSet> industries = new HashMap<>();
+    private final Map<String, BitSet> locations = new HashMap<>();
+    private final Map<String, BitSet> workTypes = new HashMap<>();
+    private final BitSet available = new BitSet();
+    private final BitSet all = new BitSet();
+    private final Map<Integer, IndexedProfile> documents = new HashMap<>();
+    private long[] updatedAtMillis = new long[1024];
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(CandidateProfile profile) {
+        index(IndexedProfile.of(profile));
+    }
+
+    public void index(IndexedProfile profile) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(profile.getId());
+            addInternal(profile);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long profileId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId(profileId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Collection<IndexedProfile> profiles) {
+        lock.writeLock().lock();
+        try {
+            skills.clear();
+            industries.clear();
+            locations.clear();
+            workTypes.clear();
+            available.clear();
+            all.clear();
+            documents.clear();
+            Arrays.fill(updatedAtMillis, 0L);
+            for (IndexedProfile profile : profiles) {
+                addInternal(profile);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all profiles matching the given filters. Null or empty filters are
+     * ignored. Skills are combined with AND when {@code matchAllSkills} is set, otherwise OR.
+     * The location matches any profile location that contains it, ignoring case.
+     * The returned bitmap is a private copy, iterated in ascending id order.
+     */
+    public BitSet match(Collection<String> skillTerms, boolean matchAllSkills, String location,
+                        String workType, String industry, boolean availableOnly) {
+        lock.readLock().lock();
+        try {
+            BitSet result = (BitSet) (availableOnly ? available : all).clone();
+            Set<String> normalizedSkills = normalizeAll(skillTerms);
+            if (!normalizedSkills.isEmpty()) {
+                result.and(matchSkills(normalizedSkills, matchAllSkills));
+            }
+            if (hasText(location)) {
+                result.and(containing(locations, normalize(location)));
+            }
+            if (hasText(workType)) {
+                result.and(postings(workTypes, normalize(workType)));
+            }
+            if (hasText(industry)) {
+                result.and(postings(industries, normalize(industry)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code reader} while holding the read lock. The package-private postings accessors
+     * below return live bitmaps and may only be used inside such a reader, which may fan work
+     * out to other threads as long as it waits for them before returning.
+     */
+    <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    BitSet allProfiles() {
+        return all;
+    }
+
+    BitSet availableProfiles() {
+        return available;
+    }
+
+    BitSet skillPostings(String term) {
+        return postings(skills, normalize(term));
+    }
+
+    BitSet industryPostings(String term) {
+        return postings(industries, normalize(term));
+    }
+
+    // Not a live bitmap: a union over the matching locations, built for the caller
+    BitSet locationPostings(String term) {
+        return containing(locations, normalize(term));
+    }
+
+    BitSet workTypePostings(String term) {
+        return postings(workTypes, normalize(term));
+    }
+
+    long updatedAtMillis(int docId) {
+        return docId < updatedAtMillis.length ? updatedAtMillis[docId] : 0L;
+    }
+
+    /**
+     * Returns up to {@code limit} ids greater than {@code afterId}, in ascending order.
+     */
+    public static List<Long> toIds(BitSet bits, long afterId, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, bits.cardinality()));
+        int from = afterId < 0 ? 0 : docId(afterId + 1);
+        for (int i = bits.nextSetBit(from); i >= 0 && ids.size() < limit; i = bits.nextSetBit(i + 1)) {
+            ids.add((long) i);
+        }
+        return ids;
+    }
+
+    public static List<String> splitTerms(String terms) {
+        if (!hasText(terms)) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>();
+        for (String term : terms.split(",")) {
+            if (hasText(term)) {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    static String normalize(String term) {
+        return term.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private BitSet matchSkills(Set<String> terms, boolean matchAll) {
+        BitSet result = null;
+        for (String term : terms) {
+            BitSet postings = postings(skills, term);
+            if (result == null) {
+                result = (BitSet) postings.clone();
+            } else if (matchAll) {
+                result.and(postings);
+            } else {
+                result.or(postings);
+            }
+            if (matchAll && result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void addInternal(IndexedProfile profile) {
+        int id = profile.getId();
+        documents.put(id, profile);
+        all.set(id);
+        if (id >= updatedAtMillis.length) {
+            updatedAtMillis = Arrays.copyOf(updatedAtMillis, Math.max(id + 1, updatedAtMillis.length * 2));
+        }
+        updatedAtMillis[id] = profile.getUpdatedAtMillis();
+        if (profile.isAvailable()) {
+            available.set(id);
+        }
+        for (String term : profile.getSkills()) {
+            postingsForWrite(skills, term).set(id);
+        }
+        for (String term : profile.getIndustries()) {
+            postingsForWrite(industries, term).set(id);
+        }
+        for (String term : profile.getLocations()) {
+            postingsForWrite(locations, term).set(id);
+        }
+        if (profile.getWorkType() != null) {
+            postingsForWrite(workTypes, profile.getWorkType()).set(id);
+        }
+    }
+
+    private void removeInternal(int id) {
+        IndexedProfile previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        all.clear(id);
+        available.clear(id);
+        updatedAtMillis[id] = 0L;
+        for (String term : previous.getSkills()) {
+            clear(skills, term, id);
+        }
+        for (String term : previous.getIndustries()) {
+            clear(industries, term, id);
+        }
+        for (String term : previous.getLocations()) {
+            clear(locations, term, id);
+        }
+        if (previous.getWorkType() != null) {
+            clear(workTypes, previous.getWorkType(), id);
+        }
+    }
+
+    private static BitSet postings(Map<String, BitSet> field, String term) {
+        BitSet postings = field.get(term);
+        return postings != null ? postings : new BitSet();
+    }
+
+    private static BitSet containing(Map<String, BitSet> field, String fragment) {
+        BitSet result = new BitSet();
+        for (Map.Entry<String, BitSet> entry : field.entrySet()) {
+            if (entry.getKey().contains(fragment)) {
+                result.or(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    private static BitSet postingsForWrite(Map<String, BitSet> field, String term) {
+        return field.computeIfAbsent(term, key -> new BitSet());
+    }
+
+    private static void clear(Map<String, BitSet> field, String term, int id) {
+        BitSet postings = field.get(term);
+        if (postings != null) {
+            postings.clear(id);
+            if (postings.isEmpty()) {
+                field.remove(term);
+            }
+        }
+    }
+
+    private static Set<String> normalizeAll(Collection<String> terms) {
+        if (terms == null || terms.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String term : terms) {
+            if (hasText(term)) {
+                normalized.add(normalize(term));
+            }
+        }
+        return normalized;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    static int docId(Long profileId) {
+        return Math.toIntExact(profileId);
+    }
+
+    /**
+     * The normalized terms of one profile, kept so that an update can remove the
+     * profile's previous postings without going back to the database.
+     */
+    public static class IndexedProfile {
+        private final int id;
+        private final Set<String> skills;
+        private final Set<String> industries;
+        private final Set<String> locations;
+        private final String workType;
+        private final boolean available;
+        private final long updatedAtMillis;
+
+        public IndexedProfile(Long id, Collection<String> skills, Collection<String> industries,
+                              String location, String workType, boolean available, LocalDateTime updatedAt) {
+            this.id = docId(id);
+            this.skills = normalizeAll(skills);
+            this.industries = normalizeAll(industries);
+            this.locations = locationTerms(location);
+            this.workType = hasText(workType) ? normalize(workType) : null;
+            this.available = available;
+            // Profiles from before the column existed count as oldest for recency scoring
+            this.updatedAtMillis = updatedAt != null ? updatedAt.toInstant(ZoneOffset.UTC).toEpochMilli() : 0L;
+        }
+
+        public static IndexedProfile of(CandidateProfile profile) {
+            return new IndexedProfile(
+                profile.getId(),
+                profile.getSkills(),
+                profile.getPreferredIndustries(),
+                profile.getLocation(),
+                profile.getPreferredWorkType() != null ? profile.getPreferredWorkType().name() : null,
+                profile.isAvailable(),
+                profile.getUpdatedAt());
+        }
+
+        // A location such as "Berlin, Germany" is searchable as a whole and by each part.
+        private static Set<String> locationTerms(String location) {
+            if (!hasText(location)) {
+                return Collections.emptySet();
+            }
+            Set<String> terms = new LinkedHashSet<>();
+            terms.add(normalize(location));
+            terms.addAll(normalizeAll(splitTerms(location)));
+            return terms;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public Set<String> getSkills() {
+            return skills;
+        }
+
+        public Set<String> getIndustries() {
+            return industries;
+        }
+
+        public Set<String> getLocations() {
+            return locations;
+        }
+
+        public String getWorkType() {
+            return workType;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public long getUpdatedAtMillis() {
+            return updatedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.dto.MessageView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind persistence for chat messages. Producers only enqueue; a single flusher
+ * thread coalesces queued messages into JDBC batch inserts, flushing when a batch is full
+ * or the flush interval has passed since its first message. Each returned future completes
+ * once its row is committed, so callers deliver a message only after it is durable.
+ */
+@Service
+public class ChatMessagePipeline {
+    private static final Logger log = LoggerFactory.getLogger(ChatMessagePipeline.class);
+
+    private static final String INSERT_MESSAGE =
+        "INSERT INTO messages (conversation_id, sender_id, receiver_id, content, sent_at, is_read, is_deleted) " +
+        "VALUES (?, ?, ?, ?, ?, false, false)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConversationService conversationService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${chat.pipeline.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${chat.pipeline.batch-size:200}")
+    private int batchSize;
+
+    @Value("${chat.pipeline.flush-interval-ms:20}")
+    private long flushIntervalMs;
+
+    @Value("${chat.pipeline.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<PendingMessage> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private Timer flushTimer;
+    private DistributionSummary batchSizes;
+    private Counter rejected;
+    private Counter failed;
+
+    @Autowired
+    public ChatMessagePipeline(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                               ConversationService conversationService, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.conversationService = conversationService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("chat.pipeline.queue.depth", queue, BlockingQueue::size)
+            .description("Chat messages waiting to be persisted")
+            .register(meterRegistry);
+        flushTimer = Timer.builder("chat.pipeline.flush")
+            .description("Time to persist one batch of chat messages")
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("chat.pipeline.batch.size")
+            .description("Messages written per batch")
+            .register(meterRegistry);
+        rejected = Counter.builder("chat.pipeline.rejected")
+            .description("Messages refused because the queue was full")
+            .register(meterRegistry);
+        failed = Counter.builder("chat.pipeline.failed")
+            .description("Messages that could not be persisted")
+            .register(meterRegistry);
+
+        running = true;
+        flusher = new Thread(this::runFlusher, "chat-write-behind");
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queues a message for persistence. Blocks for at most the configured offer timeout when
+     * the queue is full and then fails, which pushes back on senders instead of growing memory.
+     */
+    public CompletableFuture<MessageView> enqueue(Long senderId, Long receiverId, String content) {
+        if (senderId == null || receiverId == null || content == null) {
+            throw new RuntimeException("Sender, receiver and content are required");
+        }
+        PendingMessage message = new PendingMessage(senderId, receiverId, content, LocalDateTime.now());
+        boolean accepted;
+        try {
+            accepted = queue.offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            throw new RuntimeException("Chat is busy, please retry");
+        }
+        return message.result;
+    }
+
+    public int queueDepth() {
+        return queue.size();
+    }
+
+    private void runFlusher() {
+        List<PendingMessage> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (running) {
+                    collectBatch(batch);
+                } else {
+                    queue.drainTo(batch, batchSize);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: whatever is still queued is drained without waiting
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingMessage> batch) throws InterruptedException {
+        // Idle until a message arrives; shutdown interrupts the wait
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            PendingMessage next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<PendingMessage> batch) {
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(batch));
+        } catch (RuntimeException e) {
+            // One bad row (e.g. an unknown user id) fails the whole batch, so retry row by row
+            log.warn("Batch insert of {} chat messages failed, retrying individually: {}", batch.size(), e.getMessage());
+            for (PendingMessage message : batch) {
+                message.id = null;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> writeBatch(List.of(message)));
+                } catch (RuntimeException rowFailure) {
+                    failed.increment();
+                    message.result.completeExceptionally(rowFailure);
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        for (PendingMessage message : batch) {
+            if (message.id != null) {
+                message.result.complete(message.toView());
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingMessage> batch) {
+        Map<List<Long>, Long> conversationIds = new HashMap<>();
+        for (PendingMessage message : batch) {
+            List<Long> pair = List.of(Math.min(message.senderId, message.receiverId),
+                Math.max(message.senderId, message.receiverId));
+            message.conversationId = conversationIds.computeIfAbsent(pair,
+                key -> conversationService.ensureConversation(key.get(0), key.get(1), message.sentAt));
+        }
+
+        insertBatch(batch);
+
+        List<MessageView> views = new ArrayList<>(batch.size());
+        for (PendingMessage message : batch) {
+            views.add(message.toView());
+        }
+        conversationService.recordMessages(views);
+    }
+
+    private void insertBatch(List<PendingMessage> batch) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_MESSAGE, new String[] {"id"})) {
+                for (PendingMessage message : batch) {
+                    statement.setLong(1, message.conversationId);
+                    statement.setLong(2, message.senderId);
+                    statement.setLong(3, message.receiverId);
+                    statement.setString(4, message.content);
+                    statement.setTimestamp(5, Timestamp.valueOf(message.sentAt));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                assignIds(statement, batch);
+            }
+            return null;
+        });
+    }
+
+    private static void assignIds(PreparedStatement statement, List<PendingMessage> batch) throws SQLException {
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            for (PendingMessage message : batch) {
+                if (!keys.next()) {
+                    throw new SQLException("Missing generated key for chat message");
+                }
+                message.id = keys.getLong(1);
+            }
+        }
+    }
+
+    private static class PendingMessage {
+        private final Long senderId;
+        private final Long receiverId;
+        private final String content;
+        private final LocalDateTime sentAt;
+        private final CompletableFuture<MessageView> result = new CompletableFuture<>();
+        private Long conversationId;
+        private Long id;
+
+        PendingMessage(Long senderId, Long receiverId, String content, LocalDateTime sentAt) {
+            this.senderId = senderId;
+            this.receiverId = receiverId;
+            this.content = content;
+            this.sentAt = sentAt;
+        }
+
+        MessageView toView() {
+            return new MessageView(id, conversationId, senderId, receiverId, content, sentAt, false);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.dto.MessageView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the {@code conversations} summary table as messages are written. The SQL runs
+ * through JDBC so the same statements serve both the JPA send path and the batched chat
+ * pipeline, joining whichever transaction is active.
+ */
+@Service
+@Transactional
+public class ConversationService {
+    private static final Logger log = LoggerFactory.getLogger(ConversationService.class);
+
+    private static final String ENSURE_CONVERSATION =
+        "INSERT INTO conversations (user_low_id, user_high_id, last_activity_at, unread_low, unread_high) " +
+        "VALUES (?, ?, ?, 0, 0) " +
+        "ON CONFLICT (user_low_id, user_high_id) DO UPDATE SET user_low_id = EXCLUDED.user_low_id " +
+        "RETURNING id";
+
+    // GREATEST keeps the pointer monotonic when writers for the same pair commit out of order
+    private static final String RECORD_MESSAGES =
+        "UPDATE conversations SET " +
+        "last_message_id = GREATEST(COALESCE(last_message_id, 0), ?), " +
+        "last_activity_at = GREATEST(last_activity_at, ?), " +
+        "unread_low = unread_low + ?, " +
+        "unread_high = unread_high + ? " +
+        "WHERE id = ?";
+
+    private static final String MARK_READ =
+        "UPDATE conversations SET " +
+        "unread_low = CASE WHEN user_low_id = ? THEN GREATEST(unread_low - ?, 0) ELSE unread_low END, " +
+        "unread_high = CASE WHEN user_high_id = ? THEN GREATEST(unread_high - ?, 0) ELSE unread_high END " +
+        "WHERE id = ?";
+
+    // Marks the reader's messages up to a given id and lowers the summary in one round trip
+    private static final String MARK_READ_UP_TO =
+        "WITH marked AS (" +
+        "UPDATE messages SET is_read = true " +
+        "WHERE conversation_id = ? AND receiver_id = ? AND id <= ? AND NOT is_read RETURNING id), " +
+        "summary AS (" +
+        "UPDATE conversations SET " +
+        "unread_low = CASE WHEN user_low_id = ? THEN GREATEST(unread_low - (SELECT COUNT(*) FROM marked), 0) ELSE unread_low END, " +
+        "unread_high = CASE WHEN user_high_id = ? THEN GREATEST(unread_high - (SELECT COUNT(*) FROM marked), 0) ELSE unread_high END " +
+        "WHERE id = ?) " +
+        "SELECT COUNT(*) FROM marked";
+
+    private static final String COUNT_UNREAD_BY_RECEIVER =
+        "SELECT receiver_id, COUNT(*) FROM messages WHERE NOT is_read GROUP BY receiver_id";
+
+    private static final String BACKFILL_CONVERSATIONS =
+        "INSERT INTO conversations (user_low_id, user_high_id, last_activity_at, unread_low, unread_high) " +
+        "SELECT LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id), MAX(sent_at), 0, 0 " +
+        "FROM messages WHERE conversation_id IS NULL " +
+        "GROUP BY LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id) " +
+        "ON CONFLICT (user_low_id, user_high_id) DO NOTHING";
+
+    private static final String BACKFILL_MESSAGES =
+        "UPDATE messages m SET conversation_id = c.id FROM conversations c " +
+        "WHERE m.conversation_id IS NULL " +
+        "AND c.user_low_id = LEAST(m.sender_id, m.receiver_id) " +
+        "AND c.user_high_id = GREATEST(m.sender_id, m.receiver_id)";
+
+    private static final String REBUILD_SUMMARIES =
+        "UPDATE conversations c SET last_message_id = s.last_id, last_activity_at = s.last_at, " +
+        "unread_low = s.unread_low, unread_high = s.unread_high " +
+        "FROM (SELECT conversation_id, MAX(id) AS last_id, MAX(sent_at) AS last_at, " +
+        "COUNT(*) FILTER (WHERE NOT is_read AND receiver_id < sender_id) AS unread_low, " +
+        "COUNT(*) FILTER (WHERE NOT is_read AND receiver_id > sender_id) AS unread_high " +
+        "FROM messages WHERE conversation_id IS NOT NULL GROUP BY conversation_id) s " +
+        "WHERE c.id = s.conversation_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UnreadCounters unreadCounters;
+
+    @Autowired
+    public ConversationService(JdbcTemplate jdbcTemplate, UnreadCounters unreadCounters) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.unreadCounters = unreadCounters;
+    }
+
+    /**
+     * Returns the id of the conversation between the two users, creating it if needed.
+     */
+    public Long ensureConversation(Long userId1, Long userId2, LocalDateTime at) {
+        return jdbcTemplate.queryForObject(ENSURE_CONVERSATION, Long.class,
+            Math.min(userId1, userId2), Math.max(userId1, userId2), Timestamp.valueOf(at));
+    }
+
+    /**
+     * Advances the last-message pointer and unread counts for newly persisted messages,
+     * issuing one update per conversation. Messages must already carry their conversation id.
+     */
+    public void recordMessages(Collection<MessageView> messages) {
+        Map<Long, ConversationDelta> deltas = new LinkedHashMap<>();
+        Map<Long, Long> unreadByReceiver = new HashMap<>();
+        for (MessageView message : messages) {
+            deltas.computeIfAbsent(message.getConversationId(), id -> new ConversationDelta()).add(message);
+            unreadByReceiver.merge(message.getReceiverId(), 1L, Long::sum);
+        }
+
+        List<Object[]> updates = new ArrayList<>(deltas.size());
+        deltas.forEach((conversationId, delta) -> updates.add(new Object[] {
+            delta.lastMessageId, Timestamp.valueOf(delta.lastActivityAt), delta.unreadLow, delta.unreadHigh, conversationId
+        }));
+        jdbcTemplate.batchUpdate(RECORD_MESSAGES, updates);
+        afterCommit(() -> unreadByReceiver.forEach(unreadCounters::add));
+    }
+
+    /**
+     * Lowers the reader's unread count in the conversation by {@code count}, never below zero.
+     */
+    public void markRead(Long conversationId, Long readerId, int count) {
+        if (conversationId == null || count <= 0) {
+            return;
+        }
+        jdbcTemplate.update(MARK_READ, readerId, count, readerId, count, conversationId);
+        afterCommit(() -> unreadCounters.add(readerId, -count));
+    }
+
+    /**
+     * Marks every unread message the reader received in the conversation, up to and including
+     * {@code upToMessageId}, as read. Returns the number of messages that changed.
+     */
+    public int markReadUpTo(Long conversationId, Long readerId, Long upToMessageId) {
+        Long marked = jdbcTemplate.queryForObject(MARK_READ_UP_TO, Long.class,
+            conversationId, readerId, upToMessageId, readerId, readerId, conversationId);
+        int count = marked != null ? marked.intValue() : 0;
+        if (count > 0) {
+            afterCommit(() -> unreadCounters.add(readerId, -count));
+        }
+        return count;
+    }
+
+    /**
+     * Links messages written before the conversations table existed to their conversation
+     * and recomputes the summaries. Does nothing once every message has a conversation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        jdbcTemplate.update(BACKFILL_CONVERSATIONS);
+        int linked = jdbcTemplate.update(BACKFILL_MESSAGES);
+        if (linked > 0) {
+            log.info("Linked {} existing messages to conversations", linked);
+            rebuildSummaries();
+        }
+        rebuildUnreadCounters();
+    }
+
+    @Transactional(readOnly = true)
+    public void rebuildUnreadCounters() {
+        Map<Long, Long> unreadByUser = new HashMap<>();
+        jdbcTemplate.query(COUNT_UNREAD_BY_RECEIVER,
+            rs -> { unreadByUser.put(rs.getLong(1), rs.getLong(2)); });
+        unreadCounters.rebuild(unreadByUser);
+    }
+
+    public void rebuildSummaries() {
+        jdbcTemplate.update(REBUILD_SUMMARIES);
+    }
+
+    // Counters must not see writes that later roll back
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static class ConversationDelta {
+        private long lastMessageId;
+        private LocalDateTime lastActivityAt;
+        private int unreadLow;
+        private int unreadHigh;
+
+        void add(MessageView message) {
+            lastMessageId = Math.max(lastMessageId, message.getId());
+            if (lastActivityAt == null || message.getSentAt().isAfter(lastActivityAt)) {
+                lastActivityAt = message.getSentAt();
+            }
+            if (message.getReceiverId() < message.getSenderId()) {
+                unreadLow++;
+            } else {
+                unreadHigh++;
+            }
+        }
+    }
+}
@@ -1,38 +1,191 @@
 package com.talentmarketplace.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 @Service
 public class FileStorageService {
+    public static final String MODE_UUID = "uuid";
+    public static final String MODE_CONTENT_ADDRESSED = "content-addressed";
+
+    private static final long TRANSFER_CHUNK = 1 << 20;
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
 
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    @Value("${file.storage.mode:" + MODE_UUID + "}")
+    private String storageMode;
+
+    // Bytes per second written is the rate of the counter; the timer covers hashing and moving too
+    private final Counter bytesWritten;
+    private final Timer storeTimer;
+
+    @Autowired
+    public FileStorageService(MeterRegistry meterRegistry) {
+        this.bytesWritten = Counter.builder("storage.bytes.written")
+            .description("Bytes of uploaded content written to disk")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        this.storeTimer = Timer.builder("storage.store")
+            .description("Time to store one uploaded file")
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofSeconds(30))
+            .register(meterRegistry);
+    }
+
     public String storeFile(MultipartFile file, String subDir) throws IOException {
+        return storeFile(file.getInputStream(), file.getOriginalFilename(), subDir);
+    }
+
+    /**
+     * Stores {@code content} under {@code subDir} and returns its URL. The stream is closed.
+     */
+    public String storeFile(InputStream content, String originalFilename, String subDir) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return MODE_CONTENT_ADDRESSED.equals(storageMode)
+                ? storeByContentHash(content, originalFilename, subDir)
+                : storeWithRandomName(content, originalFilename, subDir);
+        } finally {
+            storeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String storeWithRandomName(InputStream content, String originalFilename, String subDir) throws IOException {
+
         // Create the upload directory if it doesn't exist
         Path uploadPath = Paths.get(uploadDir, subDir).toAbsolutePath().normalize();
         Files.createDirectories(uploadPath);
 
         // Generate a unique filename
-        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        String cleanedFilename = StringUtils.cleanPath(originalFilename);
+        String extension = cleanedFilename.substring(cleanedFilename.lastIndexOf("."));
         String newFilename = UUID.randomUUID().toString() + extension;
 
         // Copy the file to the target location
         Path targetLocation = uploadPath.resolve(newFilename);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        try (InputStream input = content) {
+            bytesWritten.increment(Files.copy(input, targetLocation, StandardCopyOption.REPLACE_EXISTING));
+        }
 
         // Return the URL to access the file
         return "/uploads/" + subDir + "/" + newFilename;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Streams the upload into a temporary file through a channel transfer while hashing it,
+     * then moves it to {@code subDir/ab/cd/<sha256>.<ext>}. Identical content maps to the same
+     * path, so a re-upload keeps the existing file and the temporary copy is dropped. The
+     * two-level prefix keeps any one directory to a few hundred entries.
+     */
+    private String storeByContentHash(InputStream content, String originalFilename, String subDir) throws IOException {
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path tempDir = root.resolve(".tmp");
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+
+        String hash;
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream input = new DigestInputStream(content, digest);
+                 ReadableByteChannel source = Channels.newChannel(input);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_CHUNK)) > 0) {
+                    position += transferred;
+                }
+                bytesWritten.increment(position);
+            }
+            hash = HexFormat.of().formatHex(digest.digest());
+
+            String filename = hash + extensionOf(originalFilename);
+            String relative = subDir + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + filename;
+            Path destination = root.resolve(relative).normalize();
+            if (!Files.exists(destination)) {
+                Files.createDirectories(destination.getParent());
+                try {
+                    Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // A concurrent upload of the same content won the race; its file is identical
+                }
+            }
+            return "/uploads/" + relative;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps a URL returned by {@link #storeFile} back to the file on disk. Returns null for
+     * URLs that are not under the upload directory.
+     */
+    public Path resolvePath(String fileUrl) {
+        if (fileUrl == null || !fileUrl.startsWith("/uploads/")) {
+            return null;
+        }
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path file = root.resolve(fileUrl.substring("/uploads/".length())).normalize();
+        return file.startsWith(root) ? file : null;
+    }
+
+    /**
+     * Returns the sha256 of a file stored under its content hash, or null for other names.
+     * Such a file never changes, so the hash doubles as a strong validator.
+     */
+    public static String contentHashOf(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.indexOf('.');
+        String base = dot >= 0 ? name.substring(0, dot) : name;
+        return CONTENT_HASH.matcher(base).matches() ? base : null;
+    }
+
+    // Only a short alphanumeric extension is kept so the stored name is always safe
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        String cleaned = StringUtils.getFilenameExtension(StringUtils.cleanPath(originalFilename));
+        if (cleaned == null || !cleaned.matches("[A-Za-z0-9]{1,10}")) {
+            return "";
+        }
+        return "." + cleaned.toLowerCase(Locale.ROOT);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.dto.InterviewPipelineSummary;
+import com.talentmarketplace.model.InterviewRequestStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code interview_pipeline_counts}, the per-user count of interview requests by
+ * status, so dashboards read one row instead of every request. Changes are applied as JDBC
+ * upserts inside the caller's transaction, so the counts commit or roll back together with
+ * the requests. A repair recomputes them from {@code interview_requests}.
+ */
+@Service
+@Transactional
+public class InterviewPipelineService {
+    private static final Logger log = LoggerFactory.getLogger(InterviewPipelineService.class);
+
+    private static final InterviewRequestStatus[] STATUSES = InterviewRequestStatus.values();
+
+    // One column per status, in ordinal order
+    private static final List<String> COLUMNS = Arrays.stream(STATUSES)
+        .map(status -> status.name().toLowerCase(Locale.ROOT))
+        .toList();
+
+    private static final String APPLY_DELTAS =
+        "INSERT INTO interview_pipeline_counts (user_id, " + String.join(", ", COLUMNS) + ") " +
+        "VALUES (?" + ", ?".repeat(COLUMNS.size()) + ") " +
+        "ON CONFLICT (user_id) DO UPDATE SET " +
+        COLUMNS.stream().map(c -> c + " = interview_pipeline_counts." + c + " + EXCLUDED." + c)
+            .collect(Collectors.joining(", "));
+
+    private static final String SELECT_COUNTS =
+        "SELECT " + String.join(", ", COLUMNS) + " FROM interview_pipeline_counts WHERE user_id = ?";
+
+    // Keeps writers out while the counts are recomputed, so none of their changes is counted twice or lost
+    private static final String LOCK_REQUESTS = "LOCK TABLE interview_requests IN SHARE MODE";
+
+    // UNION rather than UNION ALL, so a request counts once for a user on both sides of it
+    private static final String REPAIR_COUNTS =
+        "INSERT INTO interview_pipeline_counts (user_id, " + String.join(", ", COLUMNS) + ") " +
+        "SELECT user_id, " +
+        Arrays.stream(STATUSES).map(s -> "COUNT(*) FILTER (WHERE status = '" + s.name() + "')")
+            .collect(Collectors.joining(", ")) + " " +
+        "FROM (SELECT id, employer_id AS user_id, status FROM interview_requests " +
+        "UNION SELECT id, candidate_id, status FROM interview_requests) p " +
+        "GROUP BY user_id " +
+        "ON CONFLICT (user_id) DO UPDATE SET " +
+        COLUMNS.stream().map(c -> c + " = EXCLUDED." + c).collect(Collectors.joining(", ")) + " " +
+        "WHERE (" + COLUMNS.stream().map(c -> "interview_pipeline_counts." + c).collect(Collectors.joining(", ")) + ") " +
+        "IS DISTINCT FROM (" + COLUMNS.stream().map(c -> "EXCLUDED." + c).collect(Collectors.joining(", ")) + ")";
+
+    private static final String DELETE_STALE_COUNTS =
+        "DELETE FROM interview_pipeline_counts c WHERE NOT EXISTS (" +
+        "SELECT 1 FROM interview_requests r WHERE r.employer_id = c.user_id OR r.candidate_id = c.user_id)";
+
+    private static final String NEEDS_BACKFILL =
+        "SELECT NOT EXISTS (SELECT 1 FROM interview_pipeline_counts) AND EXISTS (SELECT 1 FROM interview_requests)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public InterviewPipelineService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void apply(Changes changes) {
+        if (changes.byUser.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(changes.byUser.size());
+        changes.byUser.forEach((userId, deltas) -> {
+            Object[] row = new Object[STATUSES.length + 1];
+            row[0] = userId;
+            for (int i = 0; i < deltas.length; i++) {
+                row[i + 1] = deltas[i];
+            }
+            rows.add(row);
+        });
+        jdbcTemplate.batchUpdate(APPLY_DELTAS, rows);
+    }
+
+    @Transactional(readOnly = true)
+    public InterviewPipelineSummary getSummary(Long userId) {
+        Map<InterviewRequestStatus, Long> counts = new EnumMap<>(InterviewRequestStatus.class);
+        for (InterviewRequestStatus status : STATUSES) {
+            counts.put(status, 0L);
+        }
+        jdbcTemplate.query(SELECT_COUNTS, rs -> {
+            for (InterviewRequestStatus status : STATUSES) {
+                counts.put(status, rs.getLong(status.ordinal() + 1));
+            }
+        }, userId);
+        long total = counts.values().stream().mapToLong(Long::longValue).sum();
+        return new InterviewPipelineSummary(userId, counts, total);
+    }
+
+    /**
+     * Recomputes every user's counts from the requests table and returns how many rows had to
+     * be corrected, which should normally be zero.
+     */
+    @Scheduled(cron = "${interview.pipeline.repair-cron:0 30 3 * * *}")
+    public int repair() {
+        jdbcTemplate.execute(LOCK_REQUESTS);
+        int corrected = jdbcTemplate.update(REPAIR_COUNTS) + jdbcTemplate.update(DELETE_STALE_COUNTS);
+        if (corrected > 0) {
+            log.warn("Corrected interview pipeline counts for {} users", corrected);
+        }
+        return corrected;
+    }
+
+    // Fills the table once for requests created before it existed
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(NEEDS_BACKFILL, Boolean.class))) {
+            repair();
+        }
+    }
+
+    /**
+     * Count changes collected for one transaction. Users are kept sorted so concurrent
+     * transactions lock their count rows in the same order.
+     */
+    public static final class Changes {
+        private final Map<Long, long[]> byUser = new TreeMap<>();
+
+        public Changes created(Long employerId, Long candidateId, InterviewRequestStatus status) {
+            return add(employerId, candidateId, status, 1);
+        }
+
+        public Changes moved(Long employerId, Long candidateId, InterviewRequestStatus from, InterviewRequestStatus to) {
+            return add(employerId, candidateId, from, -1).add(employerId, candidateId, to, 1);
+        }
+
+        public Changes deleted(Long employerId, Long candidateId, InterviewRequestStatus status) {
+            return add(employerId, candidateId, status, -1);
+        }
+
+        private Changes add(Long employerId, Long candidateId, InterviewRequestStatus status, int delta) {
+            byUser.computeIfAbsent(employerId, id -> new long[STATUSES.length])[status.ordinal()] += delta;
+            if (!candidateId.equals(employerId)) {
+                byUser.computeIfAbsent(candidateId, id -> new long[STATUSES.length])[status.ordinal()] += delta;
+            }
+            return this;
+        }
+    }
+}
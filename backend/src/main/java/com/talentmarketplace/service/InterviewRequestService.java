@@ -1,25 +1,59 @@
 package com.talentmarketplace.service;
 
+import com.talentmarketplace.dto.InterviewRequestView;
+import com.talentmarketplace.dto.InterviewStatusChange;
+import com.talentmarketplace.dto.InterviewStatusChangeResult;
+import com.talentmarketplace.dto.InterviewStatusChangeResult.Outcome;
 import com.talentmarketplace.model.InterviewRequest;
 import com.talentmarketplace.model.InterviewRequestStatus;
 import com.talentmarketplace.model.User;
 import com.talentmarketplace.repository.InterviewRequestRepository;
 import com.talentmarketplace.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
 public class InterviewRequestService {
+    // Locks the rows in id order, so concurrent bulk changes cannot deadlock, and reads their current state
+    private static final String LOCK_REQUESTS =
+        "SELECT id, employer_id, candidate_id, status, version FROM interview_requests " +
+        "WHERE id = ANY(?::bigint[]) ORDER BY id FOR UPDATE";
+
+    // One statement per target status, for the entries already checked against the locked rows
+    private static final String BULK_TRANSITION =
+        "UPDATE interview_requests SET status = ?, version = version + 1, updated_at = ? " +
+        "WHERE id = ANY(?::bigint[]) RETURNING id, version";
+
     private final InterviewRequestRepository interviewRequestRepository;
     private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final InterviewPipelineService interviewPipelineService;
+
+    @Value("${interview.bulk.max-size:1000}")
+    private int bulkMaxSize;
 
     @Autowired
-    public InterviewRequestService(InterviewRequestRepository interviewRequestRepository, UserRepository userRepository) {
+    public InterviewRequestService(InterviewRequestRepository interviewRequestRepository, UserRepository userRepository,
+                                   JdbcTemplate jdbcTemplate, InterviewPipelineService interviewPipelineService) {
         this.interviewRequestRepository = interviewRequestRepository;
         this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.interviewPipelineService = interviewPipelineService;
     }
 
     public InterviewRequest createRequest(Long employerId, Long candidateId, String message) {
@@ -33,30 +67,125 @@ public class InterviewRequestService {
         request.setCandidate(candidate);
         request.setMessage(message);
         request.setStatus(InterviewRequestStatus.PENDING);
-        
-        return interviewRequestRepository.save(request);
+
+        InterviewRequest saved = interviewRequestRepository.save(request);
+        interviewPipelineService.apply(new InterviewPipelineService.Changes()
+            .created(employerId, candidateId, InterviewRequestStatus.PENDING));
+        return saved;
     }
 
-    public List<InterviewRequest> getEmployerRequests(Long employerId) {
-        User employer = userRepository.findById(employerId)
-            .orElseThrow(() -> new RuntimeException("Employer not found"));
-        return interviewRequestRepository.findByEmployer(employer);
+    @Transactional(readOnly = true)
+    public List<InterviewRequestView> getEmployerRequests(Long employerId) {
+        if (!userRepository.existsById(employerId)) {
+            throw new RuntimeException("Employer not found");
+        }
+        return interviewRequestRepository.findViewsByEmployerId(employerId);
     }
 
-    public List<InterviewRequest> getCandidateRequests(Long candidateId) {
-        User candidate = userRepository.findById(candidateId)
-            .orElseThrow(() -> new RuntimeException("Candidate not found"));
-        return interviewRequestRepository.findByCandidate(candidate);
+    @Transactional(readOnly = true)
+    public List<InterviewRequestView> getCandidateRequests(Long candidateId) {
+        if (!userRepository.existsById(candidateId)) {
+            throw new RuntimeException("Candidate not found");
+        }
+        return interviewRequestRepository.findViewsByCandidateId(candidateId);
     }
 
-    public InterviewRequest updateRequestStatus(Long requestId, InterviewRequestStatus status) {
+    /**
+     * Moves a request to a new status if the lifecycle allows it. With an expected version the
+     * change fails when someone else changed the request since it was read; without one, two
+     * concurrent changes still cannot both succeed, as the version is checked on write.
+     */
+    public InterviewRequest updateRequestStatus(Long requestId, InterviewRequestStatus status, Long expectedVersion) {
         InterviewRequest request = interviewRequestRepository.findById(requestId)
             .orElseThrow(() -> new RuntimeException("Interview request not found"));
+        if (expectedVersion != null && !expectedVersion.equals(request.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(InterviewRequest.class, requestId);
+        }
+        if (!request.getStatus().canTransitionTo(status)) {
+            throw new RuntimeException("An interview request cannot change from " + request.getStatus() + " to " + status);
+        }
+        InterviewRequestStatus previous = request.getStatus();
         request.setStatus(status);
-        return interviewRequestRepository.save(request);
+        // Flushed first, so this locks the request row before the count rows, as the bulk change and repair do
+        InterviewRequest saved = interviewRequestRepository.saveAndFlush(request);
+        interviewPipelineService.apply(new InterviewPipelineService.Changes()
+            .moved(saved.getEmployer().getId(), saved.getCandidate().getId(), previous, status));
+        return saved;
+    }
+
+    /**
+     * Applies many status changes to an employer's requests with one UPDATE per target status,
+     * in a single transaction. The affected rows are locked and checked first; entries that do
+     * not apply are reported with the reason and the request's current state instead of
+     * failing the whole batch.
+     */
+    public List<InterviewStatusChangeResult> updateRequestStatuses(Long employerId, List<InterviewStatusChange> changes) {
+        if (changes == null || changes.isEmpty()) {
+            throw new RuntimeException("No status changes given");
+        }
+        if (changes.size() > bulkMaxSize) {
+            throw new RuntimeException("At most " + bulkMaxSize + " status changes can be sent at once");
+        }
+        Set<Long> seen = new HashSet<>();
+        for (InterviewStatusChange change : changes) {
+            if (change.getId() == null || change.getStatus() == null) {
+                throw new RuntimeException("Every status change needs an id and a status");
+            }
+            if (!seen.add(change.getId())) {
+                throw new RuntimeException("Interview request " + change.getId() + " appears more than once");
+            }
+        }
+
+        Map<Long, LockedRequest> locked = new HashMap<>();
+        jdbcTemplate.query(LOCK_REQUESTS, rs -> {
+            locked.put(rs.getLong("id"), new LockedRequest(rs.getLong("employer_id"), rs.getLong("candidate_id"),
+                InterviewRequestStatus.valueOf(rs.getString("status")), rs.getLong("version")));
+        }, (Object) seen.toArray(Long[]::new));
+
+        Map<Long, InterviewStatusChangeResult> results = new HashMap<>();
+        Map<InterviewRequestStatus, List<Long>> byTarget = new EnumMap<>(InterviewRequestStatus.class);
+        InterviewPipelineService.Changes counts = new InterviewPipelineService.Changes();
+        for (InterviewStatusChange change : changes) {
+            Long id = change.getId();
+            LockedRequest current = locked.get(id);
+            if (current == null) {
+                results.put(id, new InterviewStatusChangeResult(id, Outcome.NOT_FOUND, null, null));
+            } else if (!current.employerId().equals(employerId)) {
+                results.put(id, new InterviewStatusChangeResult(id, Outcome.NOT_OWNER, null, null));
+            } else if (!current.status().canTransitionTo(change.getStatus())) {
+                results.put(id, new InterviewStatusChangeResult(id, Outcome.INVALID_TRANSITION, current.status(), current.version()));
+            } else if (change.getVersion() != null && !change.getVersion().equals(current.version())) {
+                results.put(id, new InterviewStatusChangeResult(id, Outcome.VERSION_CONFLICT, current.status(), current.version()));
+            } else {
+                byTarget.computeIfAbsent(change.getStatus(), status -> new ArrayList<>()).add(id);
+                counts.moved(current.employerId(), current.candidateId(), current.status(), change.getStatus());
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        byTarget.forEach((target, ids) -> jdbcTemplate.query(BULK_TRANSITION, rs -> {
+            long id = rs.getLong(1);
+            results.put(id, new InterviewStatusChangeResult(id, Outcome.UPDATED, target, rs.getLong(2)));
+        }, target.name(), now, ids.toArray(Long[]::new)));
+        interviewPipelineService.apply(counts);
+
+        List<InterviewStatusChangeResult> ordered = new ArrayList<>(changes.size());
+        for (InterviewStatusChange change : changes) {
+            ordered.add(results.get(change.getId()));
+        }
+        return ordered;
     }
 
     public void deleteRequest(Long requestId) {
-        interviewRequestRepository.deleteById(requestId);
+        interviewRequestRepository.findById(requestId).ifPresent(request -> {
+            // Request row first, then the counts, like every other writer
+            interviewRequestRepository.delete(request);
+            interviewRequestRepository.flush();
+            interviewPipelineService.apply(new InterviewPipelineService.Changes()
+                .deleted(request.getEmployer().getId(), request.getCandidate().getId(), request.getStatus()));
+        });
+    }
+
+    private record LockedRequest(Long employerId, Long candidateId, InterviewRequestStatus status, Long version) {
     }
-} 
\ No newline at end of file
+}
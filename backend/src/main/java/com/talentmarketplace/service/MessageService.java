@@ -1,67 +1,145 @@
 package com.talentmarketplace.service;
 
+import com.talentmarketplace.dto.ConversationSummary;
+import com.talentmarketplace.dto.CursorPage;
+import com.talentmarketplace.dto.MessageView;
+import com.talentmarketplace.dto.UserSummary;
 import com.talentmarketplace.model.Message;
-import com.talentmarketplace.model.User;
+import com.talentmarketplace.repository.ConversationRepository;
 import com.talentmarketplace.repository.MessageRepository;
 import com.talentmarketplace.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @Transactional
 public class MessageService {
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
+    private final ConversationRepository conversationRepository;
+    private final ConversationService conversationService;
+    private final UnreadCounters unreadCounters;
+
+    @Value("${messages.page.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${messages.page.max-size:200}")
+    private int maxPageSize;
 
     @Autowired
-    public MessageService(MessageRepository messageRepository, UserRepository userRepository) {
+    public MessageService(MessageRepository messageRepository, UserRepository userRepository,
+                          ConversationRepository conversationRepository, ConversationService conversationService,
+                          UnreadCounters unreadCounters) {
         this.messageRepository = messageRepository;
         this.userRepository = userRepository;
+        this.conversationRepository = conversationRepository;
+        this.conversationService = conversationService;
+        this.unreadCounters = unreadCounters;
     }
 
     public Message sendMessage(Long senderId, Long receiverId, String content) {
-        User sender = userRepository.findById(senderId)
-            .orElseThrow(() -> new RuntimeException("Sender not found"));
-        User receiver = userRepository.findById(receiverId)
-            .orElseThrow(() -> new RuntimeException("Receiver not found"));
+        if (!userRepository.existsById(senderId)) {
+            throw new RuntimeException("Sender not found");
+        }
+        if (!userRepository.existsById(receiverId)) {
+            throw new RuntimeException("Receiver not found");
+        }
 
+        // References are enough to write the foreign keys; loading the users would also pull their profiles
         Message message = new Message();
-        message.setSender(sender);
-        message.setReceiver(receiver);
+        message.setSender(userRepository.getReferenceById(senderId));
+        message.setReceiver(userRepository.getReferenceById(receiverId));
         message.setContent(content);
         message.setRead(false);
-        
-        return messageRepository.save(message);
+        message.setConversationId(conversationService.ensureConversation(senderId, receiverId, message.getSentAt()));
+
+        Message savedMessage = messageRepository.save(message);
+        conversationService.recordMessages(List.of(MessageView.of(savedMessage)));
+        return savedMessage;
     }
 
-    public List<Message> getConversation(Long userId1, Long userId2) {
-        User user1 = userRepository.findById(userId1)
-            .orElseThrow(() -> new RuntimeException("User 1 not found"));
-        User user2 = userRepository.findById(userId2)
-            .orElseThrow(() -> new RuntimeException("User 2 not found"));
-        
-        return messageRepository.findConversation(user1, user2);
+    /**
+     * Returns one page of the conversation, newest message first. Pass the returned cursor
+     * as {@code before} to fetch the next, older page.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<MessageView> getConversation(Long userId1, Long userId2, Long before, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        Optional<Long> conversationId = conversationRepository.findIdByPair(
+            Math.min(userId1, userId2), Math.max(userId1, userId2));
+        if (conversationId.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        long cursor = before != null ? before : Long.MAX_VALUE;
+        List<MessageView> rows = messageRepository.findHistoryPage(conversationId.get(), cursor, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<MessageView> items = new ArrayList<>(rows.subList(0, pageSize));
+        return new CursorPage<>(items, items.get(pageSize - 1).getId());
     }
 
-    public List<User> getConversationPartners(Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        return messageRepository.findConversationPartners(user);
+    @Transactional(readOnly = true)
+    public List<ConversationSummary> getInbox(Long userId, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        return conversationRepository.findInbox(userId, Limit.of(pageSize));
     }
 
-    public List<Message> getUnreadMessages(Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        return messageRepository.findByReceiverAndIsReadFalse(user);
+    /**
+     * Returns the users the given user has exchanged messages with, most recent conversation first.
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummary> getConversationPartners(Long userId) {
+        requireUser(userId);
+        List<Long> partnerIds = conversationRepository.findInbox(userId, Limit.unlimited()).stream()
+            .map(ConversationSummary::getPartnerId)
+            .toList();
+        if (partnerIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, UserSummary> partners = new HashMap<>();
+        for (UserSummary partner : userRepository.findSummariesByIdIn(partnerIds)) {
+            partners.put(partner.getId(), partner);
+        }
+        return partnerIds.stream().map(partners::get).filter(Objects::nonNull).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<MessageView> getUnreadMessages(Long userId) {
+        requireUser(userId);
+        return messageRepository.findUnreadViews(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public long getUnreadCount(Long userId) {
+        return unreadCounters.get(userId);
+    }
+
+    /**
+     * Marks the reader's messages in the conversation as read, up to and including
+     * {@code upToMessageId}. Returns how many messages were marked.
+     */
+    public int markConversationRead(Long conversationId, Long readerId, Long upToMessageId) {
+        return conversationService.markReadUpTo(conversationId, readerId, upToMessageId);
     }
 
     public void markAsRead(Long messageId) {
         Message message = messageRepository.findById(messageId)
             .orElseThrow(() -> new RuntimeException("Message not found"));
-        message.setRead(true);
-        messageRepository.save(message);
+        // Only the call that actually flips the flag lowers the unread counts
+        if (messageRepository.markReadIfUnread(messageId) == 1) {
+            conversationService.markRead(message.getConversationId(), message.getReceiver().getId(), 1);
+        }
     }
 
     public void deleteMessage(Long messageId) {
@@ -70,4 +148,10 @@ public class MessageService {
         message.setDeleted(true);
         messageRepository.save(message);
     }
-} 
\ No newline at end of file
+
+    private void requireUser(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
+    }
+}
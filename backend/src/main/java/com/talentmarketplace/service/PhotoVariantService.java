@@ -0,0 +1,241 @@
+package com.talentmarketplace.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized JPEG variants of uploaded profile photos in the background. Jobs run on a
+ * small fixed pool behind a bounded queue; when the queue is full the job is dropped and the
+ * profile keeps serving the original photo, so uploads never wait for image processing.
+ */
+@Service
+public class PhotoVariantService {
+    private static final Logger log = LoggerFactory.getLogger(PhotoVariantService.class);
+
+    private static final String VARIANT_DIR = "photo-variants";
+
+    private final FileStorageService fileStorageService;
+    private final CandidateProfileService candidateProfileService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${photos.variants.workers:2}")
+    private int workers;
+
+    @Value("${photos.variants.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${photos.variants.thumb-size:160}")
+    private int thumbSize;
+
+    @Value("${photos.variants.card-size:480}")
+    private int cardSize;
+
+    @Value("${photos.variants.full-size:1600}")
+    private int fullSize;
+
+    @Value("${photos.variants.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${photos.variants.max-pixels:40000000}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor executor;
+    private Counter rejected;
+    private Counter failed;
+
+    @Autowired
+    public PhotoVariantService(FileStorageService fileStorageService, CandidateProfileService candidateProfileService,
+                               MeterRegistry meterRegistry) {
+        this.fileStorageService = fileStorageService;
+        this.candidateProfileService = candidateProfileService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, queue, runnable -> {
+            Thread thread = new Thread(runnable, "photo-variants-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("photos.variants.queue.depth", queue, BlockingQueue::size)
+            .description("Photos waiting for variant generation")
+            .register(meterRegistry);
+        rejected = Counter.builder("photos.variants.rejected")
+            .description("Photos skipped because the variant queue was full")
+            .register(meterRegistry);
+        failed = Counter.builder("photos.variants.failed")
+            .description("Photos whose variants could not be generated")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Queues variant generation for the photo at {@code photoUrl} and returns immediately.
+     * The variant URLs are written to the profile when done, unless its photo has changed.
+     */
+    public void generateVariants(Long profileId, String photoUrl) {
+        try {
+            executor.execute(() -> process(profileId, photoUrl));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Variant queue full, serving the original photo for profile {}", profileId);
+        }
+    }
+
+    private void process(Long profileId, String photoUrl) {
+        try {
+            BufferedImage source = decode(fileStorageService.resolvePath(photoUrl));
+            if (source == null) {
+                failed.increment();
+                log.warn("Photo {} of profile {} could not be decoded", photoUrl, profileId);
+                return;
+            }
+            String thumbUrl = store(resize(source, thumbSize), photoUrl);
+            String cardUrl = store(resize(source, cardSize), photoUrl);
+            String fullUrl = store(resize(source, fullSize), photoUrl);
+            candidateProfileService.updatePhotoVariants(profileId, photoUrl, thumbUrl, cardUrl, fullUrl);
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.warn("Generating variants of {} for profile {} failed: {}", photoUrl, profileId, e.getMessage());
+        }
+    }
+
+    // Reads the header first so oversized images are refused before any pixels are allocated
+    private BufferedImage decode(Path file) throws IOException {
+        if (file == null) {
+            return null;
+        }
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    throw new IOException("Image is larger than " + maxPixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scales the image so its longer edge is at most {@code maxEdge}, never upscaling. Large
+     * reductions are done in halving steps, which keeps bilinear filtering from aliasing.
+     */
+    private static BufferedImage resize(BufferedImage source, int maxEdge) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = toRgb(source);
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight) {
+            current = draw(current, targetWidth, targetHeight);
+        }
+        return current;
+    }
+
+    // JPEG has no alpha channel, so transparent areas are flattened onto white
+    private static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            graphics.drawImage(source, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private String store(BufferedImage image, String photoUrl) throws IOException {
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(encoded)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return fileStorageService.storeFile(new ByteArrayInputStream(encoded.toByteArray()),
+            variantName(photoUrl), VARIANT_DIR);
+    }
+
+    private static String variantName(String photoUrl) {
+        String name = photoUrl.substring(photoUrl.lastIndexOf('/') + 1);
+        int dot = name.lastIndexOf('.');
+        return (dot > 0 ? name.substring(0, dot) : name) + ".jpg";
+    }
+}
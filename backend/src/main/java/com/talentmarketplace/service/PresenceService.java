@@ -0,0 +1,322 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.config.OutboundFrameQueues;
+import com.talentmarketplace.dto.PresenceEvent;
+import com.talentmarketplace.dto.TypingEvent;
+import com.talentmarketplace.model.PresenceStatus;
+import com.talentmarketplace.repository.ConversationRepository;
+import com.talentmarketplace.security.UserIdPrincipal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.AbstractSubProtocolEvent;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Presence and typing signals for chat. Presence is derived from the STOMP sessions each user
+ * has open on this node, plus an explicit away/online status from the client. A change is
+ * only published once it has held for the debounce interval, so a reconnect or a quick
+ * away-and-back produces no events at all. With the broker relay every node publishes for its
+ * own sessions; a user whose last session here closed is only reported offline if the user
+ * registry knows no session on another node either. Typing updates are throttled per sender and
+ * conversation to one per interval; updates arriving in between are coalesced and the latest
+ * one is sent when the interval ends. Both kinds of event go only to conversation partners
+ * that are connected, as single deltas.
+ */
+@Service
+public class PresenceService {
+    private static final Logger log = LoggerFactory.getLogger(PresenceService.class);
+
+    private static final long TYPING_IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SimpUserRegistry userRegistry;
+    private final ConversationRepository conversationRepository;
+
+    private final Map<Long, UserPresence> presence = new ConcurrentHashMap<>();
+    private final Map<TypingKey, TypingState> typing = new ConcurrentHashMap<>();
+
+    @Value("${chat.presence.debounce-ms:1000}")
+    private long presenceDebounceMs;
+
+    @Value("${chat.typing.min-interval-ms:500}")
+    private long typingIntervalMs;
+
+    @Value("${chat.signals.tick-ms:100}")
+    private long tickMs;
+
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public PresenceService(SimpMessagingTemplate messagingTemplate, SimpUserRegistry userRegistry,
+                           ConversationRepository conversationRepository) {
+        this.messagingTemplate = messagingTemplate;
+        this.userRegistry = userRegistry;
+        this.conversationRepository = conversationRepository;
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chat-signals");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdownNow();
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Long userId = userId(event.getUser());
+        if (userId == null) {
+            return;
+        }
+        String sessionId = sessionId(event);
+        // Reloaded on every connect so conversations started since the last one are included
+        List<Long> partnerIds = conversationRepository.findPartnerIds(userId);
+        long now = System.nanoTime();
+        presence.compute(userId, (id, state) -> {
+            UserPresence current = state != null ? state : new UserPresence();
+            current.partners.addAll(partnerIds);
+            if (current.sessions.add(sessionId) && current.status == PresenceStatus.OFFLINE) {
+                current.change(PresenceStatus.ONLINE, now);
+            }
+            return current;
+        });
+    }
+
+    // Spring may publish the disconnect event more than once per session; the session set absorbs that
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        Long userId = userId(event.getUser());
+        if (userId == null) {
+            return;
+        }
+        String sessionId = sessionId(event);
+        long now = System.nanoTime();
+        presence.computeIfPresent(userId, (id, state) -> {
+            if (state.sessions.remove(sessionId) && state.sessions.isEmpty()) {
+                state.change(PresenceStatus.OFFLINE, now);
+            }
+            return state;
+        });
+    }
+
+    /**
+     * Sets a connected user's status to online or away; offline only follows from disconnecting.
+     */
+    public void setStatus(Long userId, PresenceStatus status) {
+        if (status == PresenceStatus.OFFLINE) {
+            throw new RuntimeException("Offline is set by disconnecting");
+        }
+        long now = System.nanoTime();
+        presence.computeIfPresent(userId, (id, state) -> {
+            if (!state.sessions.isEmpty()) {
+                state.change(status, now);
+            }
+            return state;
+        });
+    }
+
+    /**
+     * Makes two users each other's partners for presence, e.g. after their first message.
+     */
+    public void addPartners(Long userId1, Long userId2) {
+        presence.computeIfPresent(userId1, (id, state) -> {
+            state.partners.add(userId2);
+            return state;
+        });
+        presence.computeIfPresent(userId2, (id, state) -> {
+            state.partners.add(userId1);
+            return state;
+        });
+    }
+
+    /**
+     * The last published status of each of the user's conversation partners, for a client that
+     * has just subscribed. Partners connected only to other nodes are reported as online.
+     */
+    public List<PresenceEvent> snapshot(Long userId) {
+        UserPresence own = presence.get(userId);
+        Set<Long> partners = own != null
+            ? Set.copyOf(own.partners) : new HashSet<>(conversationRepository.findPartnerIds(userId));
+        LocalDateTime now = LocalDateTime.now();
+        List<PresenceEvent> events = new ArrayList<>(partners.size());
+        for (Long partnerId : partners) {
+            UserPresence state = presence.get(partnerId);
+            PresenceStatus status = state != null && state.published != PresenceStatus.OFFLINE ? state.published
+                : isConnected(partnerId) ? PresenceStatus.ONLINE : PresenceStatus.OFFLINE;
+            events.add(new PresenceEvent(partnerId, status, now));
+        }
+        return events;
+    }
+
+    public void typing(Long senderId, Long receiverId, boolean isTyping) {
+        long now = System.nanoTime();
+        long interval = TimeUnit.MILLISECONDS.toNanos(typingIntervalMs);
+        boolean[] send = new boolean[1];
+        typing.compute(new TypingKey(senderId, receiverId), (key, state) -> {
+            TypingState current = state != null ? state : new TypingState(now - interval);
+            current.touchedAt = now;
+            if (now - current.sentAt >= interval) {
+                current.pending = null;
+                send[0] = current.take(isTyping, now);
+            } else {
+                current.pending = isTyping;
+            }
+            return current;
+        });
+        if (send[0]) {
+            sendTyping(senderId, receiverId, isTyping);
+        }
+    }
+
+    private void tick() {
+        try {
+            long now = System.nanoTime();
+            publishPresenceChanges(now);
+            flushTyping(now);
+        } catch (RuntimeException e) {
+            // An exception would cancel the schedule
+            log.warn("Publishing chat signals failed: {}", e.getMessage());
+        }
+    }
+
+    private void publishPresenceChanges(long now) {
+        long debounce = TimeUnit.MILLISECONDS.toNanos(presenceDebounceMs);
+        List<PresenceDelta> deltas = new ArrayList<>();
+        for (Long userId : presence.keySet()) {
+            presence.computeIfPresent(userId, (id, state) -> {
+                if (state.status != state.published && now - state.changedAt >= debounce) {
+                    if (state.status == PresenceStatus.OFFLINE && isConnected(id)) {
+                        // Moved to another node, which now publishes this user's presence
+                        return null;
+                    }
+                    state.published = state.status;
+                    deltas.add(new PresenceDelta(id, state.status, Set.copyOf(state.partners)));
+                }
+                return state.sessions.isEmpty() && state.published == PresenceStatus.OFFLINE ? null : state;
+            });
+        }
+        for (PresenceDelta delta : deltas) {
+            PresenceEvent event = new PresenceEvent(delta.userId, delta.status, LocalDateTime.now());
+            for (Long partnerId : delta.partners) {
+                if (isConnected(partnerId)) {
+                    messagingTemplate.convertAndSendToUser(partnerId.toString(), "/queue/presence", event,
+                        Map.<String, Object>of(OutboundFrameQueues.COLLAPSE_KEY_HEADER, "presence:" + delta.userId));
+                }
+            }
+        }
+    }
+
+    private void flushTyping(long now) {
+        long interval = TimeUnit.MILLISECONDS.toNanos(typingIntervalMs);
+        List<TypingKey> started = new ArrayList<>();
+        List<TypingKey> stopped = new ArrayList<>();
+        for (TypingKey typingKey : typing.keySet()) {
+            typing.computeIfPresent(typingKey, (key, state) -> {
+                if (state.pending != null && now - state.sentAt >= interval) {
+                    boolean value = state.pending;
+                    state.pending = null;
+                    if (state.take(value, now)) {
+                        (value ? started : stopped).add(key);
+                    }
+                }
+                boolean idle = state.pending == null && !state.sent && now - state.touchedAt > TYPING_IDLE_NANOS;
+                return idle ? null : state;
+            });
+        }
+        started.forEach(key -> sendTyping(key.senderId, key.receiverId, true));
+        stopped.forEach(key -> sendTyping(key.senderId, key.receiverId, false));
+    }
+
+    private void sendTyping(Long senderId, Long receiverId, boolean isTyping) {
+        if (isConnected(receiverId)) {
+            messagingTemplate.convertAndSendToUser(receiverId.toString(), "/queue/typing",
+                new TypingEvent(senderId, isTyping),
+                Map.<String, Object>of(OutboundFrameQueues.COLLAPSE_KEY_HEADER, "typing:" + senderId));
+        }
+    }
+
+    // The user registry also knows sessions on other nodes when the broker relay is used
+    private boolean isConnected(Long userId) {
+        return userRegistry.getUser(userId.toString()) != null;
+    }
+
+    private static Long userId(Principal principal) {
+        return principal instanceof UserIdPrincipal user ? user.getUserId() : null;
+    }
+
+    private static String sessionId(AbstractSubProtocolEvent event) {
+        return SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+    }
+
+    // Mutated only inside ConcurrentHashMap.compute, which serializes access per user
+    private static final class UserPresence {
+        private final Set<String> sessions = new HashSet<>();
+        private final Set<Long> partners = ConcurrentHashMap.newKeySet();
+        private PresenceStatus status = PresenceStatus.OFFLINE;
+        private volatile PresenceStatus published = PresenceStatus.OFFLINE;
+        private long changedAt;
+
+        void change(PresenceStatus newStatus, long now) {
+            if (status != newStatus) {
+                status = newStatus;
+                changedAt = now;
+            }
+        }
+    }
+
+    private static final class TypingState {
+        private long sentAt;
+        private long touchedAt;
+        private boolean sent;
+        private Boolean pending;
+
+        TypingState(long sentAt) {
+            this.sentAt = sentAt;
+        }
+
+        // Repeated "typing" refreshes the receiver's indicator; repeated "stopped" carries no news
+        boolean take(boolean value, long now) {
+            if (!value && !sent) {
+                return false;
+            }
+            sent = value;
+            sentAt = now;
+            return true;
+        }
+    }
+
+    private record TypingKey(Long senderId, Long receiverId) {
+    }
+
+    private record PresenceDelta(Long userId, PresenceStatus status, Set<Long> partners) {
+    }
+}
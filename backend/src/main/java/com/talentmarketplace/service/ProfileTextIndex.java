@@ -0,0 +1,280 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.model.CandidateProfile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.FieldType;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.IndexOptions;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * On-disk Lucene index over the free text of candidate profiles: bio, experience and the text
+ * of the uploaded resume. Text is stemmed by the English analyzer and indexed with positions
+ * and offsets, hits are ranked with BM25 and snippets come from the unified highlighter.
+ * Changes are made by {@link ProfileTextIndexer} and become visible to searches, and durable,
+ * once it commits them, so the index survives restarts and is only rebuilt when empty.
+ */
+@Component
+public class ProfileTextIndex {
+    private static final String ID = "id";
+    private static final String BIO = "bio";
+    private static final String EXPERIENCE = "experience";
+    private static final String RESUME = "resume";
+    private static final String RESUME_URL = "resumeUrl";
+    private static final String[] TEXT_FIELDS = {BIO, EXPERIENCE, RESUME};
+
+    private static final FieldType TEXT_TYPE = new FieldType();
+
+    static {
+        TEXT_TYPE.setTokenized(true);
+        TEXT_TYPE.setStored(true);
+        TEXT_TYPE.setIndexOptions(IndexOptions.DOCS_AND_FREQS_AND_POSITIONS_AND_OFFSETS);
+        TEXT_TYPE.freeze();
+    }
+
+    private final ResumeTextExtractor resumeTextExtractor;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+
+    @Value("${search.text-index.dir:./data/text-index}")
+    private String indexDir;
+
+    @Value("${search.text-index.snippets-per-field:2}")
+    private int snippetsPerField;
+
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @Autowired
+    public ProfileTextIndex(ResumeTextExtractor resumeTextExtractor) {
+        this.resumeTextExtractor = resumeTextExtractor;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexDir).toAbsolutePath().normalize());
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+            .setSimilarity(new BM25Similarity());
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    public boolean isEmpty() {
+        return writer.getDocStats().numDocs == 0;
+    }
+
+    /**
+     * Indexes the profile's text, to be committed with {@link #commit}. The resume is only
+     * extracted again when its URL changed since the profile was last indexed; otherwise the
+     * stored text is reused.
+     */
+    public void index(CandidateProfile profile) {
+        try {
+            Document previous = find(profile.getId());
+            String resumeText;
+            if (previous != null && Objects.equals(previous.get(RESUME_URL), profile.getResumeUrl())) {
+                resumeText = previous.get(RESUME);
+            } else {
+                resumeText = resumeTextExtractor.extract(profile.getResumeUrl());
+            }
+            writer.updateDocument(new Term(ID, profile.getId().toString()), toDocument(profile, resumeText));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void remove(Long profileId) {
+        try {
+            writer.deleteDocuments(new Term(ID, profileId.toString()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Syncs the index files to disk, so one commit covers a whole batch of changes
+    public void commit() {
+        try {
+            writer.commit();
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Adds a batch of profiles without committing after each one; used to populate an empty index.
+     */
+    public void indexAll(Collection<CandidateProfile> profiles) {
+        try {
+            for (CandidateProfile profile : profiles) {
+                String resumeText = resumeTextExtractor.extract(profile.getResumeUrl());
+                writer.updateDocument(new Term(ID, profile.getId().toString()), toDocument(profile, resumeText));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        commit();
+    }
+
+    /**
+     * Runs {@code queryText} against bio, experience and resume text and returns up to
+     * {@code limit} hits by descending BM25 score, each with highlighted snippets per field.
+     * Query syntax (quotes, AND/OR, wildcards) is honoured; text that does not parse is
+     * searched literally.
+     */
+    public List<Hit> search(String queryText, int limit) {
+        Query query = parse(queryText);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, limit);
+                if (topDocs.scoreDocs.length == 0) {
+                    return List.of();
+                }
+                UnifiedHighlighter highlighter = UnifiedHighlighter.builder(searcher, analyzer)
+                    .withMaxNoHighlightPassages(0)
+                    .build();
+                int[] passages = new int[TEXT_FIELDS.length];
+                Arrays.fill(passages, snippetsPerField);
+                Map<String, String[]> snippets = highlighter.highlightFields(TEXT_FIELDS, query, topDocs, passages);
+
+                List<Hit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+                for (int i = 0; i < topDocs.scoreDocs.length; i++) {
+                    ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                    Map<String, String> highlights = new LinkedHashMap<>();
+                    for (String field : TEXT_FIELDS) {
+                        String snippet = snippets.get(field)[i];
+                        if (snippet != null) {
+                            highlights.put(field, snippet);
+                        }
+                    }
+                    Long profileId = Long.valueOf(searcher.storedFields().document(scoreDoc.doc).get(ID));
+                    hits.add(new Hit(profileId, scoreDoc.score, highlights));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Query parse(String queryText) {
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(TEXT_FIELDS, analyzer);
+        try {
+            return parser.parse(queryText);
+        } catch (ParseException e) {
+            try {
+                return parser.parse(QueryParser.escape(queryText));
+            } catch (ParseException escaped) {
+                throw new RuntimeException("Invalid search query");
+            }
+        }
+    }
+
+    private Document find(Long profileId) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(new TermQuery(new Term(ID, profileId.toString())), 1);
+            if (topDocs.scoreDocs.length == 0) {
+                return null;
+            }
+            return searcher.storedFields().document(topDocs.scoreDocs[0].doc);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private static Document toDocument(CandidateProfile profile, String resumeText) {
+        Document document = new Document();
+        document.add(new StringField(ID, profile.getId().toString(), Field.Store.YES));
+        document.add(new Field(BIO, nullToEmpty(profile.getBio()), TEXT_TYPE));
+        document.add(new Field(EXPERIENCE,
+            profile.getExperience() != null ? String.join("\n", profile.getExperience()) : "", TEXT_TYPE));
+        document.add(new Field(RESUME, nullToEmpty(resumeText), TEXT_TYPE));
+        if (profile.getResumeUrl() != null) {
+            document.add(new StoredField(RESUME_URL, profile.getResumeUrl()));
+        }
+        return document;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    public static class Hit {
+        private final Long profileId;
+        private final float score;
+        private final Map<String, String> highlights;
+
+        Hit(Long profileId, float score, Map<String, String> highlights) {
+            this.profileId = profileId;
+            this.score = score;
+            this.highlights = highlights;
+        }
+
+        public Long getProfileId() {
+            return profileId;
+        }
+
+        public float getScore() {
+            return score;
+        }
+
+        public Map<String, String> getHighlights() {
+            return highlights;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.model.CandidateProfile;
+import com.talentmarketplace.repository.CandidateProfileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the full-text index up to date in the background. Profile changes only queue the
+ * profile id; a single indexer thread collects the ids changed within the batch delay, loads
+ * those profiles, extracts resume text where the resume changed and commits the batch to the
+ * index once, after which searches see it. A profile that no longer exists is removed.
+ *
+ * <p>A batch that fails is logged, counted and queued again after the retry delay, so the
+ * request that changed a profile never waits for, or fails because of, the index.
+ */
+@Service
+public class ProfileTextIndexer {
+    private static final Logger log = LoggerFactory.getLogger(ProfileTextIndexer.class);
+
+    private final ProfileTextIndex textIndex;
+    private final CandidateProfileRepository candidateProfileRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    // Ids may be queued more than once; each batch indexes a profile once
+    private final BlockingQueue<Long> queue = new LinkedBlockingQueue<>();
+
+    @Value("${search.text-index.batch-delay-ms:200}")
+    private long batchDelayMs;
+
+    @Value("${search.text-index.batch-size:500}")
+    private int batchSize;
+
+    @Value("${search.text-index.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    private Thread indexer;
+    private volatile boolean running;
+    private Counter failures;
+
+    @Autowired
+    public ProfileTextIndexer(ProfileTextIndex textIndex, CandidateProfileRepository candidateProfileRepository,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.textIndex = textIndex;
+        this.candidateProfileRepository = candidateProfileRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        Gauge.builder("search.text.index.pending", queue, BlockingQueue::size)
+            .description("Profile changes waiting to be written to the full-text index")
+            .register(meterRegistry);
+        failures = Counter.builder("search.text.index.failures")
+            .description("Full-text index batches that failed and were queued again")
+            .register(meterRegistry);
+
+        running = true;
+        indexer = new Thread(this::runIndexer, "text-indexer");
+        indexer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        indexer.interrupt();
+        indexer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queues the profile for indexing, or for removal if it has been deleted by the time its
+     * batch runs. Call once the change is committed.
+     */
+    public void enqueue(Long profileId) {
+        queue.add(profileId);
+    }
+
+    private void runIndexer() {
+        Set<Long> batch = new LinkedHashSet<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                if (running) {
+                    collectBatch(batch);
+                } else {
+                    drain(batch);
+                }
+            } catch (InterruptedException e) {
+                // Shutting down: whatever is still queued is indexed without waiting
+                drain(batch);
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                index(batch);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Indexing {} profiles for full-text search failed, retrying in {} ms: {}",
+                    batch.size(), retryDelayMs, e.getMessage());
+                queue.addAll(batch);
+                if (!running || !pause()) {
+                    return;
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(Set<Long> batch) throws InterruptedException {
+        // Idle until a profile changes; shutdown interrupts the wait
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchDelayMs);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            Long next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void drain(Set<Long> batch) {
+        Long next;
+        while (batch.size() < batchSize && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+    }
+
+    // Returns false when interrupted by shutdown
+    private boolean pause() {
+        try {
+            Thread.sleep(retryDelayMs);
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+
+    private void index(Set<Long> profileIds) {
+        // Loaded with their experience so the text is read after the transaction, outside the connection
+        Map<Long, CandidateProfile> profiles = transactionTemplate.execute(status -> {
+            Map<Long, CandidateProfile> loaded = new HashMap<>();
+            for (CandidateProfile profile : candidateProfileRepository.findAllById(profileIds)) {
+                Hibernate.initialize(profile.getExperience());
+                loaded.put(profile.getId(), profile);
+            }
+            return loaded;
+        });
+        for (Long profileId : profileIds) {
+            CandidateProfile profile = profiles.get(profileId);
+            if (profile != null) {
+                textIndex.index(profile);
+            } else {
+                textIndex.remove(profileId);
+            }
+        }
+        textIndex.commit();
+    }
+}
@@ -0,0 +1,163 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.dto.LoginResponse;
+import com.talentmarketplace.dto.UserSummary;
+import com.talentmarketplace.model.RefreshToken;
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.repository.RefreshTokenRepository;
+import com.talentmarketplace.security.JwtTokenUtil;
+import com.talentmarketplace.security.TokenRevocationList;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues short-lived access tokens together with rotating refresh tokens. A refresh token is
+ * good for one refresh; the client gets a new one of the same family each time. A refresh
+ * token that is presented a second time has been copied, so the whole family is revoked,
+ * including the access tokens issued with it.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenUtil jwtTokenUtil;
+    private final TokenRevocationList revocationList;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${jwt.refresh-token.expiration:1209600000}")
+    private long refreshExpiration;
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, JwtTokenUtil jwtTokenUtil,
+                               TokenRevocationList revocationList) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.revocationList = revocationList;
+    }
+
+    // Starts a new family, one per login
+    public LoginResponse issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token. Empty if the token is
+     * unknown, expired, revoked or has already been used.
+     */
+    public Optional<LoginResponse> refresh(String refreshToken) {
+        if (refreshToken == null) {
+            return Optional.empty();
+        }
+        Optional<RefreshToken> found = refreshTokenRepository.findForUpdateByTokenHash(hash(refreshToken));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken token = found.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getRevokedAt() != null || token.getExpiresAt().isBefore(now)) {
+            return Optional.empty();
+        }
+        if (token.getUsedAt() != null) {
+            log.warn("Refresh token reused for user {}; revoking its family", token.getUser().getId());
+            revokeFamily(token.getFamilyId());
+            return Optional.empty();
+        }
+        token.setUsedAt(now);
+        return Optional.of(issue(token.getUser(), token.getFamilyId()));
+    }
+
+    /**
+     * Revokes the access token, if it is still valid, and the family of the refresh token.
+     * Either may be null.
+     */
+    public void logout(String accessToken, String refreshToken) {
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtTokenUtil.parseClaims(accessToken);
+                revocationList.revoke(claims.getId(), toLocalDateTime(claims.getExpiration()));
+            } catch (JwtException | IllegalArgumentException e) {
+                // Expired or invalid, so there is nothing left to revoke
+            }
+        }
+        if (refreshToken != null) {
+            refreshTokenRepository.findForUpdateByTokenHash(hash(refreshToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId()));
+        }
+    }
+
+    public void deleteForUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+
+    // Used tokens are kept until they expire, so that a replay is still recognized
+    @Scheduled(cron = "${jwt.revocation.purge-cron:0 15 3 * * *}")
+    public int purgeExpired() {
+        return refreshTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private LoginResponse issue(User user, String familyId) {
+        String accessTokenId = UUID.randomUUID().toString();
+        String accessToken = jwtTokenUtil.generateToken(user, accessTokenId);
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken token = new RefreshToken();
+        token.setTokenHash(hash(refreshToken));
+        token.setFamilyId(familyId);
+        token.setUser(user);
+        token.setAccessTokenId(accessTokenId);
+        token.setAccessTokenExpiresAt(now.plus(Duration.ofMillis(jwtTokenUtil.getExpirationMillis())));
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plus(Duration.ofMillis(refreshExpiration)));
+        refreshTokenRepository.save(token);
+        return new LoginResponse(accessToken, refreshToken, jwtTokenUtil.getExpirationMillis() / 1000, UserSummary.of(user));
+    }
+
+    private void revokeFamily(String familyId) {
+        LocalDateTime now = LocalDateTime.now();
+        for (RefreshToken token : refreshTokenRepository.findByFamilyId(familyId)) {
+            if (token.getRevokedAt() == null) {
+                token.setRevokedAt(now);
+            }
+            revocationList.revoke(token.getAccessTokenId(), token.getAccessTokenExpiresAt());
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    // The tokens are random, so an unsalted hash is enough to keep them unusable if the table leaks
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
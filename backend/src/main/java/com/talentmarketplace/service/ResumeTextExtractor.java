@@ -0,0 +1,59 @@
+package com.talentmarketplace.service;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Pulls plain text out of uploaded resumes for the full-text index. PDFs and plain text
+ * files are supported; anything else, or a file that cannot be read, yields an empty string.
+ */
+@Component
+public class ResumeTextExtractor {
+    private static final Logger log = LoggerFactory.getLogger(ResumeTextExtractor.class);
+
+    private final FileStorageService fileStorageService;
+
+    @Value("${search.text-index.max-resume-chars:100000}")
+    private int maxChars;
+
+    @Autowired
+    public ResumeTextExtractor(FileStorageService fileStorageService) {
+        this.fileStorageService = fileStorageService;
+    }
+
+    public String extract(String resumeUrl) {
+        Path file = fileStorageService.resolvePath(resumeUrl);
+        if (file == null || !Files.isRegularFile(file)) {
+            return "";
+        }
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        try {
+            String text;
+            if (name.endsWith(".pdf")) {
+                try (PDDocument document = Loader.loadPDF(file.toFile())) {
+                    text = new PDFTextStripper().getText(document);
+                }
+            } else if (name.endsWith(".txt") || name.endsWith(".md")) {
+                text = Files.readString(file, StandardCharsets.UTF_8);
+            } else {
+                return "";
+            }
+            return text.length() > maxChars ? text.substring(0, maxChars) : text;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not extract text from resume {}: {}", resumeUrl, e.getMessage());
+            return "";
+        }
+    }
+}
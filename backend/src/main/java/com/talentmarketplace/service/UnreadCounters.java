@@ -0,0 +1,35 @@
+package com.talentmarketplace.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user unread message counts kept in memory so the badge endpoint never touches the
+ * database. Each user gets a {@link LongAdder}, so concurrent deliveries to the same user
+ * do not contend on a single cell. The counts are seeded from the messages table at startup
+ * and adjusted only after the transaction that changed the rows has committed.
+ */
+@Component
+public class UnreadCounters {
+
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public long get(Long userId) {
+        LongAdder counter = counters.get(userId);
+        return counter == null ? 0 : Math.max(counter.sum(), 0);
+    }
+
+    public void add(Long userId, long delta) {
+        if (delta != 0) {
+            counters.computeIfAbsent(userId, id -> new LongAdder()).add(delta);
+        }
+    }
+
+    public void rebuild(Map<Long, Long> unreadByUser) {
+        counters.clear();
+        unreadByUser.forEach(this::add);
+    }
+}
@@ -1,33 +1,93 @@
 package com.talentmarketplace.service;
 
+import com.talentmarketplace.model.CandidateProfile;
 import com.talentmarketplace.model.User;
 import com.talentmarketplace.model.UserRole;
 import com.talentmarketplace.repository.UserRepository;
+import com.talentmarketplace.security.AuthenticatedPrincipalCache;
+import com.talentmarketplace.security.PasswordHashingExecutor;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticatedPrincipalCache principalCache;
+    private final CandidateProfileService candidateProfileService;
+    private final PasswordHashingExecutor passwordHashing;
+    private final RefreshTokenService refreshTokenService;
+
+    // Checked against for unknown emails, so that they take as long to reject as a wrong password
+    private String unknownUserHash;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       AuthenticatedPrincipalCache principalCache, CandidateProfileService candidateProfileService,
+                       PasswordHashingExecutor passwordHashing, RefreshTokenService refreshTokenService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.candidateProfileService = candidateProfileService;
+        this.passwordHashing = passwordHashing;
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @PostConstruct
+    void init() {
+        unknownUserHash = passwordEncoder.encode(UUID.randomUUID().toString());
     }
 
-    public User createUser(User user) {
+    /**
+     * Hashes the password on the hashing executor and saves the user. The future fails with a
+     * {@link java.util.concurrent.RejectedExecutionException} when the executor is saturated, and
+     * with a {@link DuplicateKeyException} when the email is already registered.
+     */
+    public CompletableFuture<User> createUser(User user) {
         if (userRepository.existsByEmail(user.getEmail())) {
-            throw new RuntimeException("Email already exists");
+            return CompletableFuture.failedFuture(new DuplicateKeyException("Email already registered"));
+        }
+        String password = user.getPassword();
+        return passwordHashing.submit(() -> passwordEncoder.encode(password))
+            .thenApply(hash -> {
+                user.setPassword(hash);
+                try {
+                    return userRepository.save(user);
+                } catch (DataIntegrityViolationException e) {
+                    // The check above ran before hashing, so a concurrent registration can get in between
+                    if (userRepository.existsByEmail(user.getEmail())) {
+                        throw new DuplicateKeyException("Email already registered", e);
+                    }
+                    throw e;
+                }
+            });
+    }
+
+    /**
+     * Checks the password on the hashing executor. Completes with the user if it matches and
+     * empty if the email is unknown or the password is wrong.
+     */
+    @Transactional(readOnly = true)
+    public CompletableFuture<Optional<User>> authenticate(String email, String password) {
+        if (email == null || password == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
         }
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        Optional<User> user = userRepository.findByEmail(email);
+        String hash = user.map(User::getPassword).orElse(unknownUserHash);
+        return passwordHashing.submit(() -> passwordEncoder.matches(password, hash))
+            .thenApply(matches -> matches ? user : Optional.empty());
     }
 
     public Optional<User> findByEmail(String email) {
@@ -42,14 +102,38 @@ public class UserService {
         if (!userRepository.existsById(user.getId())) {
             throw new RuntimeException("User not found");
         }
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        candidateProfileService.userChanged(user.getId());
+        afterCommit(() -> principalCache.invalidateUser(user.getId()));
+        return savedUser;
     }
 
     public void deleteUser(Long id) {
+        // User has no mapping of its profile, since loading one would cost a query even on a cache hit
+        CandidateProfile profile = candidateProfileService.findByUserId(id);
+        if (profile != null) {
+            candidateProfileService.deleteProfile(profile.getId());
+        }
+        refreshTokenService.deleteForUser(id);
         userRepository.deleteById(id);
+        afterCommit(() -> principalCache.invalidateUser(id));
     }
 
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+
+    // Evicted before the commit, a request in between would load the old row and cache it again
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,95 @@
+package com.talentmarketplace;
+
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.model.UserRole;
+import com.talentmarketplace.repository.UserRepository;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Base of the tests that run the application against an embedded PostgreSQL, as the
+ * repositories use Postgres SQL. They share one application context and database; each test
+ * creates its own users, so the tests do not depend on each other or on their order.
+ * {@link #counted} pins how many statements a read path prepares, so that an N+1 query shows
+ * up as a failing count.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "management.server.port=-1",
+    // Scheduled rebuilds would otherwise add their statements to a count now and then
+    "jwt.revocation.rebuild-interval-ms=3600000"
+})
+public abstract class EmbeddedPostgresTestSupport {
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws IOException {
+        Path dataDir = Files.createTempDirectory("talent-marketplace-test");
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("file.upload-dir", () -> dataDir.resolve("uploads").toString());
+        registry.add("search.text-index.dir", () -> dataDir.resolve("text-index").toString());
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException e) {
+                    // The JVM is exiting anyway
+                }
+            }));
+            return postgres;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Runs {@code call} with empty second-level and query caches and returns its result with the number
+     * of statements Hibernate prepared for it. Statements sent through JdbcTemplate are not counted.
+     */
+    protected <T> Counted<T> counted(Supplier<T> call) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        // Query regions too, which the JPA evictAll leaves alone
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        T result = call.get();
+        return new Counted<>(result, statistics.getPrepareStatementCount());
+    }
+
+    protected User createUser(UserRole role) {
+        User user = new User();
+        user.setEmail(UUID.randomUUID() + "@example.com");
+        user.setPassword("not-a-hash");
+        user.setFirstName("Test");
+        user.setLastName(role.name());
+        user.setRole(role);
+        return userRepository.save(user);
+    }
+
+    protected record Counted<T>(T result, long statements) {
+    }
+}
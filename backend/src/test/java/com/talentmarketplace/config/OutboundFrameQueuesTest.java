@@ -0,0 +1,98 @@
+package com.talentmarketplace.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboundFrameQueuesTest {
+    private OutboundFrameQueues queues;
+
+    @BeforeEach
+    void start() {
+        queues = new OutboundFrameQueues(new SimpleMeterRegistry(), new MockEnvironment());
+        ReflectionTestUtils.setField(queues, "queueCapacity", 256);
+        ReflectionTestUtils.setField(queues, "bufferSizeLimit", 524288L);
+        ReflectionTestUtils.setField(queues, "sendTimeLimitMs", 200L);
+        ReflectionTestUtils.setField(queues, "watchdogIntervalMs", 50L);
+        ReflectionTestUtils.setField(queues, "overflow", OutboundFrameQueues.OVERFLOW_DROP_OLDEST);
+        ReflectionTestUtils.setField(queues, "collapse", true);
+        ReflectionTestUtils.setField(queues, "protectedDestinations", new String[] {"/user/queue/messages"});
+        ReflectionTestUtils.setField(queues, "senderThreads", 1);
+        queues.start();
+    }
+
+    @AfterEach
+    void stop() {
+        queues.stop();
+    }
+
+    // The stuck client receives no further frames, so only the watchdog can notice it
+    @Test
+    void stuckClientHoldingEverySenderIsClosedAndOthersAreServed() throws Exception {
+        CountDownLatch stuckClosed = new CountDownLatch(1);
+        WebSocketSession stuck = session("stuck");
+        doAnswer(invocation -> {
+            stuckClosed.await();
+            throw new IOException("Connection closed");
+        }).when(stuck).sendMessage(any());
+        doAnswer(invocation -> {
+            stuckClosed.countDown();
+            return null;
+        }).when(stuck).close(any(CloseStatus.class));
+
+        BlockingQueue<WebSocketMessage<?>> received = new LinkedBlockingQueue<>();
+        WebSocketSession healthy = session("healthy");
+        doAnswer(invocation -> received.add(invocation.getArgument(0))).when(healthy).sendMessage(any());
+
+        WebSocketSession queuedStuck = connect(stuck);
+        WebSocketSession queuedHealthy = connect(healthy);
+        queuedStuck.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/presence\n\n\0"));
+        queuedHealthy.sendMessage(new TextMessage("MESSAGE\ndestination:/user/queue/messages\n\n\0"));
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isNotNull();
+        verify(stuck, timeout(5000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    private static WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        return session;
+    }
+
+    private WebSocketSession connect(WebSocketSession session) throws Exception {
+        AtomicReference<WebSocketSession> decorated = new AtomicReference<>();
+        WebSocketHandler handler = queues.decorate(new TextWebSocketHandler() {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession queued) {
+                decorated.set(queued);
+            }
+        });
+        handler.afterConnectionEstablished(session);
+        return decorated.get();
+    }
+}
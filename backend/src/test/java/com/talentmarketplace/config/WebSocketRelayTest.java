@@ -0,0 +1,173 @@
+package com.talentmarketplace.config;
+
+import com.talentmarketplace.EmbeddedPostgresTestSupport;
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.model.UserRole;
+import com.talentmarketplace.security.JwtTokenUtil;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the STOMP endpoint in relay mode against an embedded Artemis broker, so user
+ * destinations go through the broker's session queues rather than the in-memory broker.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "management.server.port=-1",
+    "jwt.revocation.rebuild-interval-ms=3600000",
+    "websocket.broker.mode=" + WebSocketConfig.BROKER_RELAY
+})
+class WebSocketRelayTest extends EmbeddedPostgresTestSupport {
+    private static final int BROKER_PORT = freePort();
+    private static final EmbeddedActiveMQ BROKER = startBroker();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtTokenUtil jwtTokenUtil;
+
+    private ThreadPoolTaskScheduler scheduler;
+    private WebSocketStompClient stompClient;
+
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) {
+        registry.add("websocket.broker.relay.host", () -> "localhost");
+        registry.add("websocket.broker.relay.port", () -> BROKER_PORT);
+    }
+
+    @BeforeEach
+    void createClient() {
+        scheduler = new ThreadPoolTaskScheduler();
+        scheduler.initialize();
+        stompClient = new WebSocketStompClient(
+            new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        // Receipts need a scheduler for their timeout
+        stompClient.setTaskScheduler(scheduler);
+    }
+
+    @AfterEach
+    void stopClient() {
+        stompClient.stop();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void chatMessageReachesOnlyTheReceiversSessionThroughTheBroker() throws Exception {
+        User sender = createUser(UserRole.EMPLOYER);
+        User receiver = createUser(UserRole.CANDIDATE);
+        StompSession senderSession = connect(sender);
+        StompSession receiverSession = connect(receiver);
+        try {
+            BlockingQueue<Map<?, ?>> toSender = subscribeToMessages(senderSession);
+            BlockingQueue<Map<?, ?>> toReceiver = subscribeToMessages(receiverSession);
+
+            String content = "Hello " + UUID.randomUUID();
+            StompHeaders send = new StompHeaders();
+            send.setDestination("/app/chat");
+            send.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            senderSession.send(send, Map.of(
+                "senderId", sender.getId(), "receiverId", receiver.getId(), "content", content));
+
+            Map<?, ?> delivered = toReceiver.poll(10, TimeUnit.SECONDS);
+            assertThat(delivered).isNotNull();
+            assertThat(delivered.get("content")).isEqualTo(content);
+            assertThat(((Number) delivered.get("senderId")).longValue()).isEqualTo(sender.getId());
+            assertThat(toSender.poll(500, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            senderSession.disconnect();
+            receiverSession.disconnect();
+        }
+    }
+
+    private StompSession connect(User user) throws Exception {
+        StompHeaders connect = new StompHeaders();
+        connect.add("Authorization", "Bearer " + jwtTokenUtil.generateToken(user));
+        StompSession session = stompClient.connectAsync("ws://localhost:{port}/ws", new WebSocketHttpHeaders(),
+            connect, new StompSessionHandlerAdapter() { }, port).get(10, TimeUnit.SECONDS);
+        session.setAutoReceipt(true);
+        return session;
+    }
+
+    // Returns once the broker has confirmed the subscription, so nothing sent afterwards is missed
+    private static BlockingQueue<Map<?, ?>> subscribeToMessages(StompSession session) throws InterruptedException {
+        BlockingQueue<Map<?, ?>> frames = new LinkedBlockingQueue<>();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        session.subscribe("/user/queue/messages", new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                frames.add((Map<?, ?>) payload);
+            }
+        }).addReceiptTask(subscribed::countDown);
+        assertThat(subscribed.await(10, TimeUnit.SECONDS)).isTrue();
+        return frames;
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static EmbeddedActiveMQ startBroker() {
+        try {
+            EmbeddedActiveMQ broker = new EmbeddedActiveMQ().setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://localhost:" + BROKER_PORT
+                    + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/"));
+            broker.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    broker.stop();
+                } catch (Exception e) {
+                    // The JVM is exiting anyway
+                }
+            }));
+            return broker;
+        } catch (Exception e) {
+            throw new IllegalStateException("Starting the embedded broker failed", e);
+        }
+    }
+}
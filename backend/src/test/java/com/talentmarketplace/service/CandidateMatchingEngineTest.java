@@ -0,0 +1,72 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.dto.CandidateMatchRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CandidateMatchingEngineTest {
+    private final CandidateSearchIndex searchIndex = new CandidateSearchIndex();
+    private final CandidateMatchingEngine matchingEngine = new CandidateMatchingEngine(searchIndex);
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(matchingEngine, "industryWeight", 1.0);
+        ReflectionTestUtils.setField(matchingEngine, "workTypeWeight", 1.0);
+        ReflectionTestUtils.setField(matchingEngine, "locationWeight", 1.0);
+        ReflectionTestUtils.setField(matchingEngine, "availabilityWeight", 1.0);
+        ReflectionTestUtils.setField(matchingEngine, "recencyWeight", 0.0);
+        ReflectionTestUtils.setField(matchingEngine, "recencyHalfLifeDays", 30.0);
+        ReflectionTestUtils.setField(matchingEngine, "splitSize", 65536);
+    }
+
+    @Test
+    void requiredSkillsFilterAndNiceToHaveSkillsRank() {
+        index(1L, List.of("java"));
+        index(2L, List.of("java", "kotlin"));
+        index(3L, List.of("kotlin"));
+
+        List<CandidateMatchingEngine.ScoredCandidate> matches = matchingEngine.topMatches(
+            request(Set.of("java"), Map.of("kotlin", 2.0)), 10);
+
+        assertThat(matches).extracting(CandidateMatchingEngine.ScoredCandidate::getProfileId)
+            .containsExactly(2L, 1L);
+        // Only availability and the nice-to-have skill count towards the score
+        assertThat(matches).extracting(CandidateMatchingEngine.ScoredCandidate::getScore)
+            .containsExactly(3.0, 1.0);
+    }
+
+    @Test
+    void splitPoolRanksLikeASingleScan() {
+        for (long id = 1; id <= 200; id++) {
+            index(id, id % 3 == 0 ? List.of("java", "kotlin") : List.of("java"));
+        }
+        CandidateMatchRequest request = request(Set.of("java"), Map.of("kotlin", 1.0));
+        List<CandidateMatchingEngine.ScoredCandidate> single = matchingEngine.topMatches(request, 20);
+
+        ReflectionTestUtils.setField(matchingEngine, "splitSize", 16);
+        List<CandidateMatchingEngine.ScoredCandidate> split = matchingEngine.topMatches(request, 20);
+
+        assertThat(split).extracting(CandidateMatchingEngine.ScoredCandidate::getProfileId)
+            .containsExactlyElementsOf(single.stream().map(CandidateMatchingEngine.ScoredCandidate::getProfileId).toList());
+    }
+
+    private void index(Long id, List<String> skills) {
+        searchIndex.index(new CandidateSearchIndex.IndexedProfile(
+            id, skills, List.of(), null, null, true, LocalDateTime.now()));
+    }
+
+    private static CandidateMatchRequest request(Set<String> required, Map<String, Double> niceToHave) {
+        CandidateMatchRequest request = new CandidateMatchRequest();
+        request.setRequiredSkills(required);
+        request.setNiceToHaveSkills(niceToHave);
+        return request;
+    }
+}
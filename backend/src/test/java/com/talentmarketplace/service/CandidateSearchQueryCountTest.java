@@ -0,0 +1,69 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.EmbeddedPostgresTestSupport;
+import com.talentmarketplace.dto.CandidateProfileView;
+import com.talentmarketplace.dto.CursorPage;
+import com.talentmarketplace.model.CandidateProfile;
+import com.talentmarketplace.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CandidateSearchQueryCountTest extends EmbeddedPostgresTestSupport {
+    private static final int PROFILES = 30;
+
+    @Autowired
+    private CandidateProfileService candidateProfileService;
+
+    @Autowired
+    private ProfileTextIndex textIndex;
+
+    @Test
+    void searchPageLoadsProfilesUsersAndCollectionsInFourStatements() throws InterruptedException {
+        String skill = "skill" + UUID.randomUUID().toString().replace("-", "");
+        createProfiles(skill, CandidateProfile.WorkType.REMOTE);
+
+        Counted<CursorPage<CandidateProfileView>> page = counted(() -> candidateProfileService.searchCandidatesPage(
+            skill, true, "york", "REMOTE", null, null, 50));
+
+        assertThat(page.result().getItems()).hasSize(PROFILES);
+        // The profiles joined with their users, then one batch load per element collection
+        assertThat(page.statements()).isEqualTo(4);
+    }
+
+    @Test
+    void unfilteredPageLoadsProfilesUsersAndCollectionsInFourStatements() throws InterruptedException {
+        createProfiles("skill" + UUID.randomUUID().toString().replace("-", ""), null);
+
+        Counted<CursorPage<CandidateProfileView>> page = counted(() -> candidateProfileService.searchCandidatesPage(
+            null, true, null, null, null, null, PROFILES));
+
+        assertThat(page.result().getItems()).hasSize(PROFILES);
+        assertThat(page.statements()).isEqualTo(4);
+    }
+
+    /**
+     * Creates the profiles and waits until the full-text indexer has loaded them, as its
+     * statements would otherwise be counted along with the search.
+     */
+    private void createProfiles(String skill, CandidateProfile.WorkType workType) throws InterruptedException {
+        for (int i = 0; i < PROFILES; i++) {
+            CandidateProfile profile = new CandidateProfile();
+            profile.setBio("Knows " + skill);
+            profile.setSkills(List.of(skill, "java"));
+            profile.setExperience(List.of("Developer"));
+            profile.setPreferredIndustries(List.of("Fintech"));
+            profile.setLocation("New York, NY");
+            profile.setPreferredWorkType(workType);
+            candidateProfileService.createProfile(profile, createUser(UserRole.CANDIDATE).getId());
+        }
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (textIndex.search(skill, PROFILES).size() < PROFILES && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.EmbeddedPostgresTestSupport;
+import com.talentmarketplace.dto.InterviewStatusChange;
+import com.talentmarketplace.model.InterviewRequestStatus;
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InterviewRequestLockOrderTest extends EmbeddedPostgresTestSupport {
+    private static final int ROUNDS = 50;
+
+    @Autowired
+    private InterviewRequestService interviewRequestService;
+
+    // Both paths lock the request rows before the count rows; in the opposite order they deadlock
+    @Test
+    void singleAndBulkChangesOfTheSameRequestDoNotDeadlock() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<Throwable> deadlocks = new ArrayList<>();
+        try {
+            for (int i = 0; i < ROUNDS; i++) {
+                User employer = createUser(UserRole.EMPLOYER);
+                User candidate = createUser(UserRole.CANDIDATE);
+                Long first = interviewRequestService.createRequest(employer.getId(), candidate.getId(), "First").getId();
+                Long second = interviewRequestService.createRequest(employer.getId(), candidate.getId(), "Second").getId();
+
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> single = pool.submit(() -> {
+                    start.await();
+                    return interviewRequestService.updateRequestStatus(first, InterviewRequestStatus.ACCEPTED, null);
+                });
+                Future<?> bulk = pool.submit(() -> {
+                    start.await();
+                    return interviewRequestService.updateRequestStatuses(employer.getId(), List.of(
+                        new InterviewStatusChange(second, InterviewRequestStatus.REJECTED, null),
+                        new InterviewStatusChange(first, InterviewRequestStatus.CANCELLED, null)));
+                });
+                start.countDown();
+                for (Future<?> change : List.of(single, bulk)) {
+                    try {
+                        change.get();
+                    } catch (ExecutionException e) {
+                        // Losing the race to the other change is expected; a deadlock is not
+                        if (e.getCause() instanceof PessimisticLockingFailureException) {
+                            deadlocks.add(e.getCause());
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertThat(deadlocks).isEmpty();
+    }
+}
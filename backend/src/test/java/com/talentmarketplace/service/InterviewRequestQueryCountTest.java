@@ -0,0 +1,48 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.EmbeddedPostgresTestSupport;
+import com.talentmarketplace.dto.InterviewRequestView;
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InterviewRequestQueryCountTest extends EmbeddedPostgresTestSupport {
+    private static final int REQUESTS = 20;
+
+    @Autowired
+    private InterviewRequestService interviewRequestService;
+
+    @Test
+    void employerRequestsTakeTwoStatements() {
+        User employer = createUser(UserRole.EMPLOYER);
+        for (int i = 0; i < REQUESTS; i++) {
+            interviewRequestService.createRequest(employer.getId(), createUser(UserRole.CANDIDATE).getId(), "Interview");
+        }
+
+        Counted<List<InterviewRequestView>> requests =
+            counted(() -> interviewRequestService.getEmployerRequests(employer.getId()));
+
+        assertThat(requests.result()).hasSize(REQUESTS);
+        // The user check, then the requests joined with both users
+        assertThat(requests.statements()).isEqualTo(2);
+    }
+
+    @Test
+    void candidateRequestsTakeTwoStatements() {
+        User candidate = createUser(UserRole.CANDIDATE);
+        for (int i = 0; i < REQUESTS; i++) {
+            interviewRequestService.createRequest(createUser(UserRole.EMPLOYER).getId(), candidate.getId(), "Interview");
+        }
+
+        Counted<List<InterviewRequestView>> requests =
+            counted(() -> interviewRequestService.getCandidateRequests(candidate.getId()));
+
+        assertThat(requests.result()).hasSize(REQUESTS);
+        assertThat(requests.statements()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,68 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.EmbeddedPostgresTestSupport;
+import com.talentmarketplace.dto.ConversationSummary;
+import com.talentmarketplace.dto.CursorPage;
+import com.talentmarketplace.dto.MessageView;
+import com.talentmarketplace.dto.UserSummary;
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageQueryCountTest extends EmbeddedPostgresTestSupport {
+    private static final int MESSAGES = 30;
+    private static final int PARTNERS = 20;
+
+    @Autowired
+    private MessageService messageService;
+
+    @Test
+    void conversationPageTakesTwoStatements() {
+        User employer = createUser(UserRole.EMPLOYER);
+        User candidate = createUser(UserRole.CANDIDATE);
+        for (int i = 0; i < MESSAGES; i++) {
+            messageService.sendMessage(employer.getId(), candidate.getId(), "Message " + i);
+        }
+
+        Counted<CursorPage<MessageView>> page = counted(
+            () -> messageService.getConversation(employer.getId(), candidate.getId(), null, 20));
+
+        assertThat(page.result().getItems()).hasSize(20);
+        // The conversation id, then the page of messages
+        assertThat(page.statements()).isEqualTo(2);
+    }
+
+    @Test
+    void inboxTakesOneStatement() {
+        User employer = createEmployerWithPartners();
+
+        Counted<List<ConversationSummary>> inbox = counted(() -> messageService.getInbox(employer.getId(), 50));
+
+        assertThat(inbox.result()).hasSize(PARTNERS);
+        assertThat(inbox.statements()).isEqualTo(1);
+    }
+
+    @Test
+    void conversationPartnersTakeThreeStatements() {
+        User employer = createEmployerWithPartners();
+
+        Counted<List<UserSummary>> partners = counted(() -> messageService.getConversationPartners(employer.getId()));
+
+        assertThat(partners.result()).hasSize(PARTNERS);
+        // The user check, the inbox, then all partners at once
+        assertThat(partners.statements()).isEqualTo(3);
+    }
+
+    private User createEmployerWithPartners() {
+        User employer = createUser(UserRole.EMPLOYER);
+        for (int i = 0; i < PARTNERS; i++) {
+            messageService.sendMessage(employer.getId(), createUser(UserRole.CANDIDATE).getId(), "Hello");
+        }
+        return employer;
+    }
+}
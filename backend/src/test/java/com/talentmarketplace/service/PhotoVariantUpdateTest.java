@@ -0,0 +1,82 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.EmbeddedPostgresTestSupport;
+import com.talentmarketplace.model.CandidateProfile;
+import com.talentmarketplace.model.UserRole;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhotoVariantUpdateTest extends EmbeddedPostgresTestSupport {
+    private static final String PHOTO = "/uploads/photos/ab/cd/photo.png";
+
+    @Autowired
+    private CandidateProfileService candidateProfileService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void variantsKeepTheVersionAndEvictOnlyTheirProfile() {
+        Long userId = createProfileWithPhoto();
+        Long otherUserId = createProfileWithPhoto();
+        CandidateProfile profile = candidateProfileService.findByUserId(userId);
+        CandidateProfile other = candidateProfileService.findByUserId(otherUserId);
+        assertThat(entityManagerFactory.getCache().contains(CandidateProfile.class, other.getId())).isTrue();
+
+        assertThat(storeVariants(profile.getId(), PHOTO)).isTrue();
+
+        CandidateProfile stored = candidateProfileService.findByUserId(userId);
+        assertThat(stored.getVersion()).isEqualTo(profile.getVersion());
+        assertThat(stored.getPhotoThumbUrl()).isEqualTo("/thumb.jpg");
+        assertThat(entityManagerFactory.getCache().contains(CandidateProfile.class, other.getId())).isTrue();
+    }
+
+    @Test
+    void variantsOfAReplacedPhotoAreDropped() {
+        Long userId = createProfileWithPhoto();
+        Long profileId = candidateProfileService.findByUserId(userId).getId();
+
+        assertThat(storeVariants(profileId, "/uploads/photos/ab/cd/previous.png")).isFalse();
+        assertThat(candidateProfileService.findByUserId(userId).getPhotoThumbUrl()).isNull();
+    }
+
+    @Test
+    void updateLoadedBeforeTheVariantsKeepsThemAndSucceeds() {
+        Long userId = createProfileWithPhoto();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            CandidateProfile loaded = candidateProfileService.findByUserId(userId);
+            assertThat(loaded.getPhotoThumbUrl()).isNull();
+            // Committed by the variant worker while the user's update is running
+            assertThat(CompletableFuture.supplyAsync(() -> storeVariants(loaded.getId(), PHOTO)).join()).isTrue();
+            candidateProfileService.updateProfile(userId, "{\"bio\":\"Changed meanwhile\"}", null, null);
+        });
+
+        CandidateProfile cached = candidateProfileService.findByUserId(userId);
+        assertThat(cached.getBio()).isEqualTo("Changed meanwhile");
+        assertThat(cached.getPhotoThumbUrl()).isEqualTo("/thumb.jpg");
+        entityManagerFactory.getCache().evict(CandidateProfile.class, cached.getId());
+        assertThat(candidateProfileService.findByUserId(userId).getPhotoThumbUrl()).isEqualTo("/thumb.jpg");
+    }
+
+    private Long createProfileWithPhoto() {
+        Long userId = createUser(UserRole.CANDIDATE).getId();
+        candidateProfileService.createProfile(new CandidateProfile(), userId);
+        candidateProfileService.updateProfile(userId, "{\"bio\":\"Has a photo\"}", PHOTO, null);
+        return userId;
+    }
+
+    private boolean storeVariants(Long profileId, String photoUrl) {
+        return candidateProfileService.updatePhotoVariants(profileId, photoUrl, "/thumb.jpg", "/card.jpg", "/full.jpg");
+    }
+}
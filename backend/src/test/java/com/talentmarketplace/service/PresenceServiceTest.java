@@ -0,0 +1,118 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.dto.PresenceEvent;
+import com.talentmarketplace.model.PresenceStatus;
+import com.talentmarketplace.repository.ConversationRepository;
+import com.talentmarketplace.security.UserIdPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PresenceServiceTest {
+    private static final Long USER = 1L;
+    private static final Long PARTNER = 2L;
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SimpUserRegistry userRegistry = mock(SimpUserRegistry.class);
+    private final ConversationRepository conversationRepository = mock(ConversationRepository.class);
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void start() {
+        when(conversationRepository.findPartnerIds(USER)).thenReturn(List.of(PARTNER));
+        when(conversationRepository.findPartnerIds(PARTNER)).thenReturn(List.of(USER));
+        when(userRegistry.getUser(PARTNER.toString())).thenReturn(mock(SimpUser.class));
+        presenceService = new PresenceService(messagingTemplate, userRegistry, conversationRepository);
+        ReflectionTestUtils.setField(presenceService, "presenceDebounceMs", 100L);
+        ReflectionTestUtils.setField(presenceService, "typingIntervalMs", 100L);
+        ReflectionTestUtils.setField(presenceService, "tickMs", 20L);
+        presenceService.start();
+    }
+
+    @AfterEach
+    void stop() {
+        presenceService.stop();
+    }
+
+    @Test
+    void lastSessionClosingIsPublishedAsOffline() {
+        connect();
+        verify(messagingTemplate, timeout(2000)).convertAndSendToUser(
+            eq(PARTNER.toString()), eq("/queue/presence"), argThat(status(PresenceStatus.ONLINE)), anyMap());
+
+        disconnect();
+
+        verify(messagingTemplate, timeout(2000)).convertAndSendToUser(
+            eq(PARTNER.toString()), eq("/queue/presence"), argThat(status(PresenceStatus.OFFLINE)), anyMap());
+    }
+
+    @Test
+    void userStillConnectedToAnotherNodeIsNotPublishedAsOffline() {
+        connect();
+        verify(messagingTemplate, timeout(2000)).convertAndSendToUser(
+            eq(PARTNER.toString()), eq("/queue/presence"), argThat(status(PresenceStatus.ONLINE)), anyMap());
+        // With the broker relay the registry also holds sessions on other nodes
+        when(userRegistry.getUser(USER.toString())).thenReturn(mock(SimpUser.class));
+
+        disconnect();
+
+        verify(messagingTemplate, after(500).never()).convertAndSendToUser(
+            anyString(), anyString(), argThat(status(PresenceStatus.OFFLINE)), anyMap());
+        assertThat(presenceService.snapshot(PARTNER))
+            .extracting(PresenceEvent::getStatus).containsExactly(PresenceStatus.ONLINE);
+    }
+
+    @Test
+    void snapshotReportsPartnersConnectedOnlyToOtherNodesAsOnline() {
+        when(userRegistry.getUser(USER.toString())).thenReturn(mock(SimpUser.class));
+
+        assertThat(presenceService.snapshot(PARTNER))
+            .extracting(PresenceEvent::getStatus).containsExactly(PresenceStatus.ONLINE);
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(), anyMap());
+    }
+
+    private void connect() {
+        presenceService.onConnected(new SessionConnectedEvent(this, message(), new UserIdPrincipal(USER)));
+    }
+
+    private void disconnect() {
+        presenceService.onDisconnected(new SessionDisconnectEvent(this, message(), "session-1",
+            CloseStatus.NORMAL, new UserIdPrincipal(USER)));
+    }
+
+    private static Message<byte[]> message() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create();
+        accessor.setSessionId("session-1");
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private static ArgumentMatcher<Object> status(PresenceStatus status) {
+        return event -> event instanceof PresenceEvent presence && presence.getStatus() == status;
+    }
+}
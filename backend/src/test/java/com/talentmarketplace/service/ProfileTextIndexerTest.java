@@ -0,0 +1,45 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.EmbeddedPostgresTestSupport;
+import com.talentmarketplace.model.CandidateProfile;
+import com.talentmarketplace.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProfileTextIndexerTest extends EmbeddedPostgresTestSupport {
+    @Autowired
+    private CandidateProfileService candidateProfileService;
+
+    @Autowired
+    private ProfileTextIndex textIndex;
+
+    @Test
+    void profileChangesReachTheIndexInTheBackground() throws InterruptedException {
+        String word = "zx" + UUID.randomUUID().toString().replace("-", "");
+        CandidateProfile profile = new CandidateProfile();
+        profile.setBio("Writes " + word + " every day");
+        profile = candidateProfileService.createProfile(profile, createUser(UserRole.CANDIDATE).getId());
+        Long profileId = profile.getId();
+
+        assertThat(awaitHits(word, 1)).extracting(ProfileTextIndex.Hit::getProfileId).containsExactly(profileId);
+
+        candidateProfileService.deleteProfile(profileId);
+        assertThat(awaitHits(word, 0)).isEmpty();
+    }
+
+    // Reads the index itself; the service would also drop deleted profiles when loading the rows
+    private List<ProfileTextIndex.Hit> awaitHits(String query, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        List<ProfileTextIndex.Hit> hits = textIndex.search(query, 10);
+        while (hits.size() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            hits = textIndex.search(query, 10);
+        }
+        return hits;
+    }
+}
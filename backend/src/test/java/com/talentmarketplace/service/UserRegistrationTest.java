@@ -0,0 +1,47 @@
+package com.talentmarketplace.service;
+
+import com.talentmarketplace.EmbeddedPostgresTestSupport;
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.model.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserRegistrationTest extends EmbeddedPostgresTestSupport {
+    @Autowired
+    private UserService userService;
+
+    // Both pass the email check before either is saved, as the password is hashed in between
+    @Test
+    void concurrentRegistrationOfOneEmailFailsAsDuplicate() {
+        String email = UUID.randomUUID() + "@example.com";
+        List<CompletableFuture<User>> registrations = List.of(
+            userService.createUser(user(email)), userService.createUser(user(email)));
+
+        List<Throwable> failures = registrations.stream()
+            .map(registration -> registration.handle((user, e) -> e).join())
+            .filter(e -> e != null)
+            .map(e -> e instanceof CompletionException ? e.getCause() : e)
+            .toList();
+
+        assertThat(failures).singleElement().isInstanceOf(DuplicateKeyException.class);
+        assertThat(userRepository.findByEmail(email)).isPresent();
+    }
+
+    private static User user(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("correct horse battery staple");
+        user.setFirstName("Test");
+        user.setLastName("Candidate");
+        user.setRole(UserRole.CANDIDATE);
+        return user;
+    }
+}
@@ -0,0 +1,70 @@
+package com.talentmarketplace.benchmarks;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Arrays;
+
+/**
+ * Picks the BCrypt cost for this host: the highest cost whose median hash time stays within the
+ * target. It measures from cost 4 upwards and stops at the first cost over the target, since
+ * each step doubles the time. Run it on the production hardware, or on the same instance type.
+ *
+ * <p>Usage: {@code BcryptCostCalibration [target-ms] [hashing-threads]}. The target defaults to
+ * 250 ms. The hashing threads, by default half the processors as in the backend, are used for
+ * the login rate that the host can sustain at the chosen cost.
+ */
+public class BcryptCostCalibration {
+    private static final String PASSWORD = "correct horse battery staple";
+    private static final int MIN_COST = 4;
+    private static final int MAX_COST = 16;
+    private static final int SAMPLES = 7;
+
+    public static void main(String[] args) {
+        double targetMillis = args.length > 0 ? Double.parseDouble(args[0]) : 250;
+        int threads = args.length > 1 && Integer.parseInt(args[1]) > 0
+            ? Integer.parseInt(args[1])
+            : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        // Lets the JIT compile the hashing loop before anything is timed
+        BCryptPasswordEncoder warmup = new BCryptPasswordEncoder(8);
+        for (int i = 0; i < 20; i++) {
+            warmup.encode(PASSWORD);
+        }
+
+        System.out.printf("%5s %12s %14s%n", "cost", "median ms", "logins/s");
+        int chosen = MIN_COST;
+        double chosenMillis = 0;
+        for (int cost = MIN_COST; cost <= MAX_COST; cost++) {
+            double millis = medianMillis(new BCryptPasswordEncoder(cost));
+            System.out.printf("%5d %12.1f %14.1f%n", cost, millis, threads * 1000 / millis);
+            if (millis > targetMillis && cost > MIN_COST) {
+                break;
+            }
+            chosen = cost;
+            chosenMillis = millis;
+            if (millis > targetMillis) {
+                break;
+            }
+        }
+
+        System.out.println();
+        if (chosenMillis > targetMillis) {
+            System.out.printf("Even the lowest cost takes longer than %.0f ms on this host%n", targetMillis);
+        }
+        System.out.printf("Hashing takes %.1f ms at cost %d, so %d hashing thread(s) sustain about %.0f logins/s%n",
+            chosenMillis, chosen, threads, threads * 1000 / chosenMillis);
+        System.out.println("security.password.bcrypt-cost=" + chosen);
+    }
+
+    private static double medianMillis(BCryptPasswordEncoder encoder) {
+        String hash = encoder.encode(PASSWORD);
+        double[] millis = new double[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.matches(PASSWORD, hash);
+            millis[i] = (System.nanoTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(millis);
+        return millis[SAMPLES / 2];
+    }
+}
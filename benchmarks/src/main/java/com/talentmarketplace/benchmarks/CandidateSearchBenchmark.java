@@ -0,0 +1,119 @@
+package com.talentmarketplace.benchmarks;
+
+import com.talentmarketplace.dto.CandidateMatchRequest;
+import com.talentmarketplace.service.CandidateMatchingEngine;
+import com.talentmarketplace.service.CandidateSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candidate filtering on the in-memory search index and ranking with the matching engine,
+ * over synthetic indexes of 10k to 1M profiles. Popular terms give large result sets and
+ * rare ones small sets, so both ends of the posting list sizes are covered.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CandidateSearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    public int profiles;
+
+    private AnnotationConfigApplicationContext context;
+    private CandidateSearchIndex searchIndex;
+    private CandidateMatchingEngine matchingEngine;
+
+    private List<String> popularSkills;
+    private List<String> mixedSkills;
+    private String location;
+    private String industry;
+    private CandidateMatchRequest broadRequest;
+    private CandidateMatchRequest narrowRequest;
+
+    @Setup
+    public void setUp() {
+        context = Fixtures.context(Map.of(), CandidateSearchIndex.class, CandidateMatchingEngine.class);
+        searchIndex = context.getBean(CandidateSearchIndex.class);
+        matchingEngine = context.getBean(CandidateMatchingEngine.class);
+        searchIndex.rebuild(Fixtures.indexedProfiles(profiles));
+
+        popularSkills = List.of(Fixtures.SKILLS.get(0), Fixtures.SKILLS.get(1), Fixtures.SKILLS.get(2));
+        mixedSkills = List.of(Fixtures.SKILLS.get(0), Fixtures.SKILLS.get(40));
+        location = Fixtures.CITIES.get(0);
+        industry = Fixtures.INDUSTRIES.get(0);
+        broadRequest = matchRequest(Fixtures.SKILLS.get(0));
+        narrowRequest = matchRequest(Fixtures.SKILLS.get(200));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Any of three popular skills: a large share of the index matches
+    @Benchmark
+    public BitSet matchAnySkill() {
+        return searchIndex.match(popularSkills, false, null, null, null, false);
+    }
+
+    // A popular and a less common skill, in one city, in one industry, available only
+    @Benchmark
+    public BitSet matchAllFilters() {
+        return searchIndex.match(mixedSkills, true, location, "REMOTE", industry, true);
+    }
+
+    // The first page of a broad search, as returned by the keyset-paginated endpoint
+    @Benchmark
+    public List<Long> firstPage() {
+        BitSet matches = searchIndex.match(popularSkills, false, null, null, null, false);
+        return CandidateSearchIndex.toIds(matches, -1, PAGE_SIZE + 1);
+    }
+
+    // The best 20 of every profile with the most common skill
+    @Benchmark
+    public List<CandidateMatchingEngine.ScoredCandidate> rankBroad() {
+        return matchingEngine.topMatches(broadRequest, PAGE_SIZE);
+    }
+
+    // The best 20 of the few profiles with a rare skill
+    @Benchmark
+    public List<CandidateMatchingEngine.ScoredCandidate> rankNarrow() {
+        return matchingEngine.topMatches(narrowRequest, PAGE_SIZE);
+    }
+
+    private CandidateMatchRequest matchRequest(String requiredSkill) {
+        Map<String, Double> niceToHave = new LinkedHashMap<>();
+        niceToHave.put(Fixtures.SKILLS.get(1), 2.0);
+        niceToHave.put(Fixtures.SKILLS.get(5), 1.0);
+        niceToHave.put(Fixtures.SKILLS.get(30), 0.5);
+        CandidateMatchRequest request = new CandidateMatchRequest();
+        request.setRequiredSkills(Set.of(requiredSkill));
+        request.setNiceToHaveSkills(niceToHave);
+        request.setIndustries(List.of(Fixtures.INDUSTRIES.get(0), Fixtures.INDUSTRIES.get(3)));
+        request.setWorkType("REMOTE");
+        request.setLocation(location);
+        return request;
+    }
+}
@@ -0,0 +1,95 @@
+package com.talentmarketplace.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Compares two JMH JSON result files, typically the previous release's against the current
+ * build, and exits with status 1 if any benchmark got slower by more than the threshold.
+ * Throughput results regress when they drop, time results when they grow. Changes within the
+ * combined error of the two runs are not counted.
+ *
+ * <p>Usage: {@code CompareResults <baseline.json> <current.json> [threshold]}, where the
+ * threshold is a fraction and defaults to 0.10.
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result now = entry.getValue();
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %9s  %s%n", entry.getKey(), "-", now.score, "new", now.unit);
+                continue;
+            }
+            double change = (now.score - before.score) / before.score;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean beyondError = Math.abs(now.score - before.score) > before.error + now.error;
+            boolean regressed = worse > threshold && beyondError;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.score, now.score,
+                change * 100, now.unit, regressed ? "  REGRESSION" : "");
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-70s %14s %14s %9s%n", key, "", "-", "missing");
+            }
+        }
+        System.out.printf("%d regression(s) beyond %.0f%%%n", regressions, threshold * 100);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble();
+            results.put(key(run), new Result(
+                run.get("mode").asText(),
+                metric.get("score").asDouble(),
+                Double.isNaN(error) ? 0 : error,
+                metric.get("scoreUnit").asText()));
+        }
+        return results;
+    }
+
+    // Benchmark method plus its parameters, e.g. CandidateSearchBenchmark.rankBroad profiles=100000
+    private static String key(JsonNode run) {
+        String benchmark = run.get("benchmark").asText();
+        StringJoiner key = new StringJoiner(" ");
+        key.add(benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1));
+        JsonNode params = run.get("params");
+        if (params != null) {
+            for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                key.add(param.getKey() + "=" + param.getValue().asText());
+            }
+        }
+        return key.toString();
+    }
+
+    private record Result(String mode, double score, double error, String unit) {
+        boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.talentmarketplace.benchmarks;
+
+import com.talentmarketplace.model.CandidateProfile;
+import com.talentmarketplace.model.InterviewRequest;
+import com.talentmarketplace.model.InterviewRequestStatus;
+import com.talentmarketplace.model.Message;
+import com.talentmarketplace.model.User;
+import com.talentmarketplace.model.UserRole;
+import com.talentmarketplace.service.CandidateSearchIndex.IndexedProfile;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic synthetic data and a minimal Spring context for the benchmarks. Term
+ * popularity is skewed, so a few skills, industries and cities are shared by a large part of
+ * the profiles and the rest are rare, as in real search traffic.
+ */
+final class Fixtures {
+    static final long SEED = 42;
+
+    static final Terms SKILLS = new Terms("skill", 400);
+    static final Terms INDUSTRIES = new Terms("industry", 40);
+    static final Terms CITIES = new Terms("city", 120);
+    static final String COUNTRY = "germany";
+    static final String[] WORK_TYPES = {"REMOTE", "HYBRID", "ON_SITE"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * Creates the given components with their {@code @Value} defaults, overridden by
+     * {@code properties}, and a Prometheus registry like the one the application exports to.
+     * No aspects are applied, so the beans are measured without the method timers.
+     */
+    static AnnotationConfigApplicationContext context(Map<String, Object> properties, Class<?>... components) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.registerBean(MeterRegistry.class, () -> new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        context.register(components);
+        context.refresh();
+        return context;
+    }
+
+    static List<IndexedProfile> indexedProfiles(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDateTime now = LocalDateTime.now();
+        List<IndexedProfile> profiles = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            profiles.add(new IndexedProfile(
+                id,
+                pick(random, SKILLS, 3 + random.nextInt(8)),
+                pick(random, INDUSTRIES, 1 + random.nextInt(3)),
+                CITIES.next(random) + ", " + COUNTRY,
+                WORK_TYPES[random.nextInt(WORK_TYPES.length)],
+                random.nextInt(10) < 7,
+                now.minusMinutes(random.nextInt(180 * 24 * 60))));
+        }
+        return profiles;
+    }
+
+    static List<CandidateProfile> candidateProfiles(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<CandidateProfile> profiles = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            CandidateProfile profile = new CandidateProfile();
+            profile.setId(id);
+            profile.setUser(user(id, UserRole.CANDIDATE));
+            profile.setBio("Engineer with " + (2 + random.nextInt(15)) + " years of experience in "
+                + String.join(", ", pick(random, SKILLS, 4)) + ". Looking for a team that ships often.");
+            profile.setSkills(new ArrayList<>(pick(random, SKILLS, 3 + random.nextInt(8))));
+            profile.setExperience(List.of(
+                "Senior engineer at Example GmbH, 2019-2024: led the migration of the billing platform",
+                "Engineer at Sample AG, 2015-2019: built internal tooling and data pipelines"));
+            profile.setLocation(CITIES.next(random) + ", " + COUNTRY);
+            profile.setPhoneNumber("+49 30 " + (1_000_000 + random.nextInt(9_000_000)));
+            profile.setLinkedInProfile("https://www.linkedin.com/in/candidate-" + id);
+            profile.setGithubProfile("https://github.com/candidate-" + id);
+            profile.setAvailable(random.nextInt(10) < 7);
+            profile.setExpectedSalary((60 + random.nextInt(60)) + "k EUR");
+            profile.setPreferredWorkType(CandidateProfile.WorkType.values()[random.nextInt(3)]);
+            profile.setPreferredIndustries(new ArrayList<>(pick(random, INDUSTRIES, 1 + random.nextInt(3))));
+            profile.setPhotoUrl("/uploads/photos/ab/cd/" + id + ".jpg");
+            profile.setPhotoThumbUrl("/uploads/photos/ab/cd/" + id + "-thumb.jpg");
+            profile.setPhotoCardUrl("/uploads/photos/ab/cd/" + id + "-card.jpg");
+            profile.setPhotoFullUrl("/uploads/photos/ab/cd/" + id + "-full.jpg");
+            profile.setResumeUrl("/uploads/resumes/ef/01/" + id + ".pdf");
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+    static List<Message> messages(int count) {
+        User employer = user(1, UserRole.EMPLOYER);
+        User candidate = user(2, UserRole.CANDIDATE);
+        List<Message> messages = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        for (long id = 1; id <= count; id++) {
+            boolean fromEmployer = id % 2 == 1;
+            Message message = new Message();
+            message.setId(id);
+            message.setConversationId(1L);
+            message.setSender(fromEmployer ? employer : candidate);
+            message.setReceiver(fromEmployer ? candidate : employer);
+            message.setContent("Thanks for getting back to me. Would Thursday afternoon work for a first call? (" + id + ")");
+            message.setSentAt(start.plusMinutes(id));
+            message.setRead(id < count);
+            messages.add(message);
+        }
+        return messages;
+    }
+
+    static List<InterviewRequest> interviewRequests(int count) {
+        User employer = user(1, UserRole.EMPLOYER);
+        InterviewRequestStatus[] statuses = InterviewRequestStatus.values();
+        List<InterviewRequest> requests = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            InterviewRequest request = new InterviewRequest();
+            request.setId(id);
+            request.setEmployer(employer);
+            request.setCandidate(user(id + 1, UserRole.CANDIDATE));
+            request.setMessage("We would like to invite you to an interview for the backend engineer position.");
+            request.setStatus(statuses[(int) (id % statuses.length)]);
+            request.setCreatedAt(LocalDateTime.now().minusDays(id % 30));
+            request.setUpdatedAt(LocalDateTime.now());
+            request.setVersion(id % 3);
+            requests.add(request);
+        }
+        return requests;
+    }
+
+    static User user(long id, UserRole role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z6Z5yZ1d2rQ0uK0nQJ0b8bUu");
+        user.setFirstName("First" + id);
+        user.setLastName("Last" + id);
+        user.setRole(role);
+        return user;
+    }
+
+    private static Set<String> pick(SplittableRandom random, Terms terms, int count) {
+        Set<String> picked = new LinkedHashSet<>();
+        while (picked.size() < count) {
+            picked.add(terms.next(random));
+        }
+        return picked;
+    }
+
+    /**
+     * A vocabulary in which the term at rank i is drawn with probability proportional to
+     * 1 / (i + 1). Terms are lower case single words, so the index normalizes them to the same
+     * String instances and a large index does not hold a copy per profile.
+     */
+    static final class Terms {
+        private final String[] terms;
+        private final double[] cumulative;
+
+        Terms(String prefix, int size) {
+            terms = new String[size];
+            cumulative = new double[size];
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                terms[i] = prefix + i;
+                sum += 1.0 / (i + 1);
+                cumulative[i] = sum;
+            }
+        }
+
+        String get(int rank) {
+            return terms[rank];
+        }
+
+        String next(SplittableRandom random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+            return terms[Math.min(index >= 0 ? index : -index - 1, terms.length - 1)];
+        }
+    }
+}
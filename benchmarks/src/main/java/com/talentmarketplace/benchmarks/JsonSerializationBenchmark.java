@@ -0,0 +1,71 @@
+package com.talentmarketplace.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.talentmarketplace.model.CandidateProfile;
+import com.talentmarketplace.model.InterviewRequest;
+import com.talentmarketplace.model.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the entity graphs the API returns, with users nested in messages
+ * and interview requests. The mapper is configured the way Spring Boot configures the
+ * application's one. {@code size} is the number of entities in the response, 1 for a single
+ * entity and 50 for a page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "50"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Object profiles;
+    private Object messages;
+    private Object interviewRequests;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        profiles = response(Fixtures.candidateProfiles(size));
+        messages = response(Fixtures.messages(size));
+        interviewRequests = response(Fixtures.interviewRequests(size));
+    }
+
+    @Benchmark
+    public byte[] candidateProfiles() throws Exception {
+        return objectMapper.writeValueAsBytes(profiles);
+    }
+
+    @Benchmark
+    public byte[] messages() throws Exception {
+        return objectMapper.writeValueAsBytes(messages);
+    }
+
+    @Benchmark
+    public byte[] interviewRequests() throws Exception {
+        return objectMapper.writeValueAsBytes(interviewRequests);
+    }
+
+    private Object response(List<?> entities) {
+        return entities.size() == 1 ? entities.get(0) : entities;
+    }
+}
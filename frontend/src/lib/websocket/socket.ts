@@ -1,6 +1,7 @@
 import { Client } from '@stomp/stompjs';
 
-const SOCKET_URL = process.env.NEXT_PUBLIC_WEBSOCKET_URL || 'ws://localhost:8080/ws';
+// The backend endpoint is SockJS; its raw WebSocket transport lives under /websocket
+const SOCKET_URL = process.env.NEXT_PUBLIC_WEBSOCKET_URL || 'ws://localhost:8080/ws/websocket';
 
 class WebSocketService {
   private client: Client;
@@ -30,7 +31,9 @@ class WebSocketService {
     return WebSocketService.instance;
   }
 
-  public connect(): void {
+  // The server authenticates the session from the bearer token in the CONNECT frame
+  public connect(token: string): void {
+    this.client.connectHeaders = { Authorization: `Bearer ${token}` };
     this.client.activate();
   }
 
@@ -38,8 +41,8 @@ class WebSocketService {
     this.client.deactivate();
   }
 
-  public subscribeToPrivateMessages(userId: string, callback: (message: any) => void): void {
-    this.client.subscribe(`/user/${userId}/queue/messages`, (message) => {
+  public subscribeToPrivateMessages(callback: (message: any) => void): void {
+    this.client.subscribe('/user/queue/messages', (message) => {
       const receivedMessage = JSON.parse(message.body);
       callback(receivedMessage);
     });
@@ -0,0 +1,115 @@
+package com.talentmarketplace.loadtest;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Thin HTTP client for the backend's REST API, shared by the load generators.
+ */
+class ApiClient {
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String BOUNDARY = "loadtest-" + UUID.randomUUID();
+
+    private final String baseUrl;
+    private final HttpClient http;
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    HttpResponse<String> send(String method, String path, String token, String json)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = request(path, token);
+        if (json != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        builder.method(method, json != null
+            ? HttpRequest.BodyPublishers.ofString(json) : HttpRequest.BodyPublishers.noBody());
+        return http.send(builder.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    HttpResponse<String> sendMultipart(String method, String path, String token, List<Part> parts)
+            throws IOException, InterruptedException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (Part part : parts) {
+            StringBuilder header = new StringBuilder("--").append(BOUNDARY).append("\r\n")
+                .append("Content-Disposition: form-data; name=\"").append(part.name()).append('"');
+            if (part.filename() != null) {
+                header.append("; filename=\"").append(part.filename()).append('"');
+            }
+            header.append("\r\nContent-Type: ").append(part.contentType()).append("\r\n\r\n");
+            body.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            body.write(part.content());
+            body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        HttpRequest request = request(path, token)
+            .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+            .method(method, HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+            .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    long register(String email, String role) throws IOException, InterruptedException {
+        HttpResponse<String> response = send("POST", "/api/auth/register", null, registration(email, role));
+        Matcher matcher = ID.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Registering " + email + " failed: " + response.statusCode() + " " + response.body());
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(60));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    static String registration(String email, String role) {
+        return "{\"email\":\"" + email + "\",\"password\":\"benchmark-password\",\"firstName\":\"Bench\"," +
+            "\"lastName\":\"Mark\",\"role\":\"" + role + "\"}";
+    }
+
+    // Same claims and key derivation as the backend's JwtTokenUtil
+    static String token(String secret, String email) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+            .setClaims(new HashMap<>())
+            .setId(UUID.randomUUID().toString())
+            .setSubject(email)
+            .setIssuedAt(new Date(now))
+            .setExpiration(new Date(now + Duration.ofHours(1).toMillis()))
+            .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+            .compact();
+    }
+
+    record Part(String name, String filename, String contentType, byte[] content) {
+    }
+}
@@ -0,0 +1,175 @@
+package com.talentmarketplace.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent STOMP chat clients on the SockJS endpoint's plain WebSocket transport. Every
+ * client is one session of a user and sends a message to its partner at a fixed interval. The
+ * send time travels in the message, so delivery latency is measured from the SEND frame to the
+ * MESSAGE frame on each of the receiver's sessions. Messages sent in the measured window that
+ * are not delivered shortly after it count as errors.
+ */
+class ChatLoad implements AutoCloseable {
+    private static final String MARKER = "loadtest ";
+    private static final long DRAIN_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final String webSocketUrl;
+    private final WebSocketStompClient client;
+    private final ScheduledExecutorService senders;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<StompSession> sessions = new ArrayList<>();
+    private final Map<Long, Integer> sessionsPerUser = new ConcurrentHashMap<>();
+
+    // Guarded by itself; deliveries arrive on the WebSocket client's threads
+    private final Samples samples = new Samples();
+    private final AtomicLong expected = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private volatile long windowStart = Long.MAX_VALUE;
+    private volatile long windowEnd = Long.MAX_VALUE;
+
+    ChatLoad(String baseUrl) {
+        this.webSocketUrl = baseUrl.replaceFirst("^http", "ws") + "/ws/websocket";
+        this.client = new WebSocketStompClient(new StandardWebSocketClient());
+        this.client.setMessageConverter(new MappingJackson2MessageConverter());
+        this.senders = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "chat-load-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Connects one session per participant and starts sending once all are subscribed.
+     */
+    void start(List<Participant> participants, int intervalMillis) throws Exception {
+        for (Participant participant : participants) {
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", "Bearer " + participant.token());
+            StompSession session = client.connectAsync(webSocketUrl, new WebSocketHttpHeaders(), connectHeaders,
+                new StompSessionHandlerAdapter() {
+                }).get(30, TimeUnit.SECONDS);
+            session.subscribe("/user/queue/messages", new DeliveryHandler());
+            sessions.add(session);
+            sessionsPerUser.merge(participant.userId(), 1, Integer::sum);
+        }
+        // Gives the last subscriptions time to reach the broker before messages flow
+        Thread.sleep(1000);
+        for (int i = 0; i < participants.size(); i++) {
+            StompSession session = sessions.get(i);
+            Participant participant = participants.get(i);
+            senders.scheduleAtFixedRate(() -> send(session, participant),
+                ThreadLocalRandom.current().nextLong(intervalMillis), intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void beginMeasurement() {
+        windowEnd = Long.MAX_VALUE;
+        windowStart = System.nanoTime();
+    }
+
+    /**
+     * Closes the measured window, waits for its messages to be delivered and returns their
+     * latencies, with undelivered ones as errors.
+     */
+    Samples endMeasurement() throws InterruptedException {
+        windowEnd = System.nanoTime();
+        long deadline = System.nanoTime() + DRAIN_NANOS;
+        while (delivered.get() < expected.get() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        Samples result = new Samples();
+        synchronized (samples) {
+            result.addAll(samples);
+        }
+        result.recordMissing(Math.max(0, expected.get() - delivered.get()));
+        return result;
+    }
+
+    int connectedSessions() {
+        return (int) sessions.stream().filter(StompSession::isConnected).count();
+    }
+
+    private void send(StompSession session, Participant participant) {
+        long now = System.nanoTime();
+        if (inWindow(now)) {
+            expected.addAndGet(sessionsPerUser.getOrDefault(participant.partnerId(), 0));
+        }
+        try {
+            session.send("/app/chat", Map.of(
+                "senderId", participant.userId(),
+                "receiverId", participant.partnerId(),
+                "content", MARKER + now));
+        } catch (RuntimeException e) {
+            // A closed session loses the message, which shows up as an undelivered one
+        }
+    }
+
+    private boolean inWindow(long sentAt) {
+        return sentAt >= windowStart && sentAt < windowEnd;
+    }
+
+    @Override
+    public void close() {
+        senders.shutdownNow();
+        for (StompSession session : sessions) {
+            if (session.isConnected()) {
+                session.disconnect();
+            }
+        }
+        client.stop();
+    }
+
+    private class DeliveryHandler implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return byte[].class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            long now = System.nanoTime();
+            try {
+                JsonNode content = objectMapper.readTree((byte[]) payload).get("content");
+                if (content == null || !content.asText().startsWith(MARKER)) {
+                    return;
+                }
+                long sentAt = Long.parseLong(content.asText().substring(MARKER.length()));
+                if (inWindow(sentAt)) {
+                    synchronized (samples) {
+                        samples.record(now - sentAt, true);
+                    }
+                    delivered.incrementAndGet();
+                }
+            } catch (IOException | NumberFormatException e) {
+                // Not one of ours
+            }
+        }
+    }
+
+    /**
+     * One chat session: the user it belongs to and the user it writes to.
+     */
+    record Participant(long userId, String token, long partnerId) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.talentmarketplace.loadtest;
+
+import com.talentmarketplace.TalentMarketplaceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The backend started in this JVM on a random port, against a throwaway PostgreSQL instance
+ * and temporary upload and index directories. The schema is created by Hibernate on startup,
+ * as in development. Postgres itself rather than an in-memory database stands in for
+ * production, because the backend relies on Postgres SQL such as upserts and array parameters.
+ */
+class EmbeddedBackend implements AutoCloseable {
+    private final EmbeddedPostgres postgres;
+    private final ConfigurableApplicationContext context;
+    private final Path dataDir;
+
+    private EmbeddedBackend(EmbeddedPostgres postgres, ConfigurableApplicationContext context, Path dataDir) {
+        this.postgres = postgres;
+        this.context = context;
+        this.dataDir = dataDir;
+    }
+
+    /**
+     * Starts the database and the backend. {@code overrides} are extra {@code --name=value}
+     * application properties, e.g. to try a different pool size or execution mode.
+     */
+    static EmbeddedBackend start(List<String> overrides) throws IOException {
+        Path dataDir = Files.createTempDirectory("talent-marketplace-loadtest");
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        try {
+            List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--file.upload-dir=" + dataDir.resolve("uploads"),
+                "--search.text-index.dir=" + dataDir.resolve("text-index"),
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.talentmarketplace=WARN"));
+            args.addAll(overrides);
+            ConfigurableApplicationContext context =
+                SpringApplication.run(TalentMarketplaceApplication.class, args.toArray(new String[0]));
+            return new EmbeddedBackend(postgres, context, dataDir);
+        } catch (RuntimeException e) {
+            postgres.close();
+            throw e;
+        }
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    String jwtSecret() {
+        return context.getEnvironment().getProperty("jwt.secret");
+    }
+
+    @Override
+    public void close() throws IOException {
+        context.close();
+        postgres.close();
+        FileSystemUtils.deleteRecursively(dataDir);
+    }
+}
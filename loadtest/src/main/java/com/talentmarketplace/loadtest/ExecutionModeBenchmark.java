@@ -0,0 +1,190 @@
+package com.talentmarketplace.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop benchmark for comparing the backend's execution modes. A fixed number of clients
+ * send a mix of database-bound requests back to back (candidate search, interview request
+ * listing, chat history and registration, which also hashes a password) for a fixed time and
+ * the throughput and latency percentiles are reported per endpoint.
+ *
+ * <p>Run it once against a backend started with {@code VIRTUAL_THREADS_ENABLED=false} and once
+ * with {@code VIRTUAL_THREADS_ENABLED=true}, both with a small {@code DB_POOL_SIZE}, so the
+ * connection pool rather than the client is the bottleneck. Results are appended to a CSV
+ * file so the runs can be compared side by side.
+ */
+public class ExecutionModeBenchmark {
+    private final ApiClient api;
+
+    ExecutionModeBenchmark(String baseUrl) {
+        this.api = new ApiClient(baseUrl);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        String baseUrl = options.get("base-url", "http://localhost:8080");
+        String label = options.get("label", "unlabelled");
+        int concurrency = options.getInt("concurrency", 200);
+        int warmupSeconds = options.getInt("warmup-seconds", 10);
+        int durationSeconds = options.getInt("duration-seconds", 30);
+        int candidates = options.getInt("candidates", 50);
+        String secret = options.get("jwt-secret",
+            System.getenv().getOrDefault("JWT_SECRET", "change-me-to-a-random-secret-of-32-bytes-or-more"));
+        Path results = Path.of(options.get("results", "target/execution-mode.csv"));
+
+        ExecutionModeBenchmark benchmark = new ExecutionModeBenchmark(baseUrl);
+        Workload workload = benchmark.seed(secret, candidates);
+
+        System.out.printf("Warming up %s for %ds with %d clients%n", label, warmupSeconds, concurrency);
+        benchmark.run(workload, concurrency, warmupSeconds);
+        System.out.printf("Measuring %s for %ds with %d clients%n", label, durationSeconds, concurrency);
+        Map<String, Samples> samples = benchmark.run(workload, concurrency, durationSeconds);
+        report(label, concurrency, durationSeconds, samples, results);
+    }
+
+    /**
+     * Registers an employer and a set of candidates with profiles so every request in the mix
+     * reads real rows. Names are unique per run, so the benchmark can be repeated on one database.
+     */
+    Workload seed(String secret, int candidates) throws IOException, InterruptedException {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        String employerEmail = "bench-employer-" + run + "@example.com";
+        long employerId = api.register(employerEmail, "EMPLOYER");
+        String employerToken = ApiClient.token(secret, employerEmail);
+
+        long firstCandidateId = -1;
+        for (int i = 0; i < candidates; i++) {
+            String email = "bench-candidate-" + run + "-" + i + "@example.com";
+            long candidateId = api.register(email, "CANDIDATE");
+            if (firstCandidateId < 0) {
+                firstCandidateId = candidateId;
+            }
+            String token = ApiClient.token(secret, email);
+            api.send("POST", "/api/candidates/" + candidateId, token,
+                "{\"bio\":\"Benchmark candidate " + i + "\",\"skills\":[\"Java\",\"Spring\",\"SQL\"]," +
+                "\"location\":\"Berlin\",\"preferredWorkType\":\"REMOTE\"}");
+            api.send("POST", "/api/interview-requests?employerId=" + employerId + "&candidateId=" + candidateId +
+                "&message=hello", employerToken, null);
+            api.send("POST", "/api/messages?senderId=" + employerId + "&receiverId=" + candidateId +
+                "&content=hello", employerToken, null);
+        }
+        return new Workload(run, employerId, firstCandidateId, employerToken, new AtomicLong());
+    }
+
+    Map<String, Samples> run(Workload workload, int concurrency, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Map<String, Samples>> perClient = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Map<String, Samples> samples = new LinkedHashMap<>();
+            perClient.add(samples);
+            Thread client = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        request(workload, samples);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "bench-client-" + i);
+            client.setDaemon(true);
+            client.start();
+        }
+        done.await();
+
+        Map<String, Samples> merged = new LinkedHashMap<>();
+        for (Map<String, Samples> samples : perClient) {
+            samples.forEach((endpoint, s) -> merged.computeIfAbsent(endpoint, e -> new Samples()).addAll(s));
+        }
+        return merged;
+    }
+
+    // 60% search, 20% interview requests, 10% chat history, 10% registration
+    private void request(Workload workload, Map<String, Samples> samples) {
+        int pick = ThreadLocalRandom.current().nextInt(10);
+        String endpoint;
+        String method = "GET";
+        String path;
+        String token = workload.employerToken;
+        String body = null;
+        if (pick < 6) {
+            endpoint = "GET /api/candidates/search";
+            path = "/api/candidates/search?skills=java,spring&size=20";
+        } else if (pick < 8) {
+            endpoint = "GET /api/interview-requests/employer/{id}";
+            path = "/api/interview-requests/employer/" + workload.employerId;
+        } else if (pick < 9) {
+            endpoint = "GET /api/messages/conversation";
+            path = "/api/messages/conversation?userId1=" + workload.employerId + "&userId2=" +
+                workload.firstCandidateId + "&size=20";
+        } else {
+            endpoint = "POST /api/auth/register";
+            method = "POST";
+            path = "/api/auth/register";
+            token = null;
+            body = ApiClient.registration("bench-user-" + workload.run + "-" + workload.registrations.incrementAndGet() + "@example.com",
+                "CANDIDATE");
+        }
+
+        Samples s = samples.computeIfAbsent(endpoint, e -> new Samples());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = api.send(method, path, token, body);
+            s.record(System.nanoTime() - start, response.statusCode() < 400);
+        } catch (IOException e) {
+            s.record(System.nanoTime() - start, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void report(String label, int concurrency, int seconds, Map<String, Samples> samples, Path results)
+            throws IOException {
+        Samples total = new Samples();
+        samples.values().forEach(total::addAll);
+        Map<String, Samples> rows = new LinkedHashMap<>(samples);
+        rows.put("ALL", total);
+
+        StringBuilder csv = new StringBuilder();
+        System.out.printf("%-42s %10s %10s %9s %9s %9s %9s %8s%n",
+            "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (Map.Entry<String, Samples> row : rows.entrySet()) {
+            Samples s = row.getValue();
+            double throughput = (double) s.count() / seconds;
+            System.out.printf("%-42s %10d %10.1f %9.1f %9.1f %9.1f %9.1f %8d%n", row.getKey(), s.count(), throughput,
+                s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99), s.percentileMillis(100),
+                s.errors());
+            csv.append(String.format("%s,%d,%s,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%d%n", label, concurrency, row.getKey(),
+                s.count(), throughput, s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                s.percentileMillis(100), s.errors()));
+        }
+
+        Path parent = results.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (!Files.exists(results)) {
+            Files.writeString(results, "label,concurrency,endpoint,requests,throughput,p50_ms,p90_ms,p99_ms,max_ms,errors\n");
+        }
+        Files.writeString(results, csv, StandardOpenOption.APPEND);
+        System.out.println("Results appended to " + results.toAbsolutePath());
+    }
+
+    // Registrations count across the warm-up and measured runs so every email is new
+    record Workload(String run, long employerId, long firstCandidateId, String employerToken,
+                    AtomicLong registrations) {
+    }
+}
@@ -0,0 +1,516 @@
+package com.talentmarketplace.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Self-contained load test of the marketplace. Unless {@code --base-url} points it at a running
+ * backend, it starts one in-process against an embedded PostgreSQL, seeds employers and
+ * candidates with profiles, and then runs three kinds of clients at once for a fixed time:
+ * <ul>
+ *   <li>employers searching candidates page by page, viewing profiles, sending interview
+ *       requests and completing accepted ones,</li>
+ *   <li>candidates updating their profiles, some with a photo or resume upload, and accepting or
+ *       rejecting the interview requests they received,</li>
+ *   <li>STOMP chat sessions on {@code /ws}, each sending a message to a partner at a fixed rate.</li>
+ * </ul>
+ * HTTP clients are closed-loop with a random think time. Throughput and latency percentiles
+ * are reported per step and appended to a CSV file, and the run is checked against the service
+ * level objectives in {@code slo.properties}. The process exits with status 1 if any objective
+ * is missed, so a build that runs it fails.
+ */
+public class MarketplaceLoadTest {
+    private static final List<String> SKILLS = List.of("java", "spring", "sql", "kotlin", "react", "typescript",
+        "python", "go", "kubernetes", "aws", "terraform", "postgres", "kafka", "graphql", "docker", "scala");
+    private static final List<String> CITIES = List.of("Berlin", "Munich", "Hamburg", "Cologne", "Frankfurt", "Leipzig");
+    private static final List<String> WORK_TYPES = List.of("REMOTE", "HYBRID", "ON_SITE");
+    private static final int PAGE_SIZE = 20;
+    private static final int SEED_THREADS = 8;
+
+    enum Step {
+        SEARCH("search", "GET /api/candidates/search"),
+        SEARCH_NEXT_PAGE("search-next-page", "GET /api/candidates/search?after="),
+        PROFILE_VIEW("profile-view", "GET /api/candidates/{id}"),
+        PROFILE_UPDATE("profile-update", "PUT /api/candidates/{id}"),
+        PROFILE_UPDATE_PHOTO("profile-update-photo", "PUT /api/candidates/{id} with photo"),
+        PROFILE_UPDATE_RESUME("profile-update-resume", "PUT /api/candidates/{id} with resume"),
+        INTERVIEW_CREATE("interview-create", "POST /api/interview-requests"),
+        INTERVIEW_LIST_EMPLOYER("interview-list-employer", "GET /api/interview-requests/employer/{id}"),
+        INTERVIEW_LIST_CANDIDATE("interview-list-candidate", "GET /api/interview-requests/candidate/{id}"),
+        INTERVIEW_STATUS("interview-status", "PUT /api/interview-requests/{id}/status"),
+        INTERVIEW_AGGREGATES("interview-aggregates", "GET /api/interview-requests/aggregates/{id}"),
+        CHAT_DELIVERY("chat-delivery", "STOMP /app/chat to /user/queue/messages");
+
+        final String id;
+        final String description;
+
+        Step(String id, String description) {
+            this.id = id;
+            this.description = description;
+        }
+    }
+
+    private final ApiClient api;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int thinkTimeMillis;
+    private final byte[] photo;
+    private final byte[] resume;
+
+    MarketplaceLoadTest(ApiClient api, int thinkTimeMillis) throws IOException {
+        this.api = api;
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.photo = photo();
+        this.resume = resume();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        int employerClients = options.getInt("employers", 20);
+        int candidateClients = options.getInt("candidate-clients", 20);
+        int candidates = Math.max(options.getInt("candidates", 200), candidateClients);
+        int chatClients = options.getInt("chat-clients", 100);
+        int chatIntervalMillis = options.getInt("chat-interval-ms", 1000);
+        int thinkTimeMillis = options.getInt("think-time-ms", 100);
+        int warmupSeconds = options.getInt("warmup-seconds", 10);
+        int durationSeconds = options.getInt("duration-seconds", 60);
+        String label = options.get("label", "unlabelled");
+        Path results = Path.of(options.get("results", "target/marketplace-load.csv"));
+        Slo slo = Slo.load(options.get("slo", null));
+
+        List<String> violations;
+        try (EmbeddedBackend backend = options.has("base-url") ? null : EmbeddedBackend.start(options.forward("backend."))) {
+            String baseUrl = backend != null ? backend.baseUrl() : options.get("base-url", null);
+            String secret = backend != null ? backend.jwtSecret() : options.get("jwt-secret",
+                System.getenv().getOrDefault("JWT_SECRET", "change-me-to-a-random-secret-of-32-bytes-or-more"));
+            MarketplaceLoadTest test = new MarketplaceLoadTest(new ApiClient(baseUrl), thinkTimeMillis);
+
+            System.out.printf("Seeding %d employers and %d candidates on %s%n", employerClients, candidates, baseUrl);
+            Population population = test.seed(secret, Math.max(employerClients, 1), candidates);
+
+            try (ChatLoad chat = new ChatLoad(baseUrl)) {
+                chat.start(population.chatParticipants(chatClients), chatIntervalMillis);
+                System.out.printf("Warming up for %ds with %d employers, %d candidates and %d chat sessions%n",
+                    warmupSeconds, employerClients, candidateClients, chatClients);
+                test.run(population, employerClients, candidateClients, warmupSeconds);
+
+                System.out.printf("Measuring for %ds%n", durationSeconds);
+                chat.beginMeasurement();
+                Map<String, Samples> samples = test.run(population, employerClients, candidateClients, durationSeconds);
+                samples.put(Step.CHAT_DELIVERY.id, chat.endMeasurement());
+                System.out.printf("%d of %d chat sessions still connected%n", chat.connectedSessions(), chatClients);
+
+                report(label, durationSeconds, samples, results);
+                violations = slo.check(samples, durationSeconds);
+            }
+        }
+
+        if (violations.isEmpty()) {
+            System.out.println("All service level objectives met");
+            System.exit(0);
+        }
+        System.out.println("Service level objectives missed:");
+        violations.forEach(violation -> System.out.println("  " + violation));
+        System.exit(1);
+    }
+
+    /**
+     * Registers the users and gives every candidate a profile. Names are unique per run, so
+     * the test can be repeated against one database.
+     */
+    Population seed(String secret, int employers, int candidates) throws Exception {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        ExecutorService pool = Executors.newFixedThreadPool(SEED_THREADS);
+        try {
+            List<Future<Account>> employerAccounts = new ArrayList<>();
+            for (int i = 0; i < employers; i++) {
+                String email = "load-employer-" + run + "-" + i + "@example.com";
+                employerAccounts.add(pool.submit(() ->
+                    new Account(api.register(email, "EMPLOYER"), ApiClient.token(secret, email))));
+            }
+            List<Future<Account>> candidateAccounts = new ArrayList<>();
+            for (int i = 0; i < candidates; i++) {
+                String email = "load-candidate-" + run + "-" + i + "@example.com";
+                candidateAccounts.add(pool.submit(() -> {
+                    Account account = new Account(api.register(email, "CANDIDATE"), ApiClient.token(secret, email));
+                    HttpResponse<String> response = api.send("POST", "/api/candidates/" + account.id(),
+                        account.token(), profileJson());
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Creating a profile failed: " + response.statusCode() + " " + response.body());
+                    }
+                    return account;
+                }));
+            }
+            return new Population(collect(employerAccounts), collect(candidateAccounts));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    Map<String, Samples> run(Population population, int employerClients, int candidateClients, int seconds)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Map<String, Samples>> perClient = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(employerClients + candidateClients);
+        for (int i = 0; i < employerClients + candidateClients; i++) {
+            Map<String, Samples> samples = new LinkedHashMap<>();
+            perClient.add(samples);
+            Runnable scenario = i < employerClients
+                ? new EmployerScenario(population.employers().get(i % population.employers().size()), population, samples)
+                : new CandidateScenario(population.candidates().get(i - employerClients), samples);
+            Thread client = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                        scenario.run();
+                        think();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, (i < employerClients ? "employer-" : "candidate-") + i);
+            client.setDaemon(true);
+            client.start();
+        }
+        done.await();
+
+        Map<String, Samples> merged = new LinkedHashMap<>();
+        for (Step step : Step.values()) {
+            for (Map<String, Samples> samples : perClient) {
+                Samples s = samples.get(step.id);
+                if (s != null) {
+                    merged.computeIfAbsent(step.id, id -> new Samples()).addAll(s);
+                }
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Search, browse and invite, then follow up on the requests the candidates accepted.
+     */
+    private class EmployerScenario implements Runnable {
+        private final Account employer;
+        private final Population population;
+        private final Map<String, Samples> samples;
+        private final List<Long> found = new ArrayList<>();
+
+        EmployerScenario(Account employer, Population population, Map<String, Samples> samples) {
+            this.employer = employer;
+            this.population = population;
+            this.samples = samples;
+        }
+
+        @Override
+        public void run() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            if (roll < 50) {
+                search();
+            } else if (roll < 65) {
+                timed(samples, Step.PROFILE_VIEW, () -> api.send("GET", "/api/candidates/" + someCandidate(),
+                    employer.token(), null));
+            } else if (roll < 80) {
+                timed(samples, Step.INTERVIEW_CREATE, () -> api.send("POST", "/api/interview-requests?employerId=" +
+                    employer.id() + "&candidateId=" + someCandidate() + "&message=Interview%20invitation",
+                    employer.token(), null));
+            } else if (roll < 95) {
+                completeAccepted();
+            } else {
+                timed(samples, Step.INTERVIEW_AGGREGATES, () -> api.send("GET",
+                    "/api/interview-requests/aggregates/" + employer.id(), employer.token(), null));
+            }
+        }
+
+        private void search() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            StringBuilder path = new StringBuilder("/api/candidates/search?size=").append(PAGE_SIZE)
+                .append("&skills=").append(pick(SKILLS));
+            if (random.nextBoolean()) {
+                path.append(',').append(pick(SKILLS)).append("&match=").append(random.nextBoolean() ? "any" : "all");
+            }
+            if (random.nextInt(10) < 3) {
+                path.append("&location=").append(pick(CITIES));
+            }
+            JsonNode page = json(timed(samples, Step.SEARCH, () -> api.send("GET", path.toString(), employer.token(), null)));
+            found.clear();
+            for (JsonNode item : page.path("items")) {
+                found.add(item.path("user").path("id").asLong());
+            }
+            JsonNode next = page.path("nextCursor");
+            if (next.isNumber() && random.nextInt(10) < 3) {
+                timed(samples, Step.SEARCH_NEXT_PAGE, () -> api.send("GET", path + "&after=" + next.asLong(),
+                    employer.token(), null));
+            }
+        }
+
+        private void completeAccepted() {
+            JsonNode requests = json(timed(samples, Step.INTERVIEW_LIST_EMPLOYER, () -> api.send("GET",
+                "/api/interview-requests/employer/" + employer.id(), employer.token(), null)));
+            List<JsonNode> accepted = withStatus(requests, "ACCEPTED");
+            if (!accepted.isEmpty()) {
+                JsonNode request = accepted.get(ThreadLocalRandom.current().nextInt(accepted.size()));
+                timed(samples, Step.INTERVIEW_STATUS, () -> api.send("PUT", "/api/interview-requests/" +
+                    request.path("id").asLong() + "/status?status=COMPLETED&version=" + request.path("version").asLong(),
+                    employer.token(), null));
+            }
+        }
+
+        private long someCandidate() {
+            if (!found.isEmpty()) {
+                return found.get(ThreadLocalRandom.current().nextInt(found.size()));
+            }
+            return pick(population.candidates()).id();
+        }
+    }
+
+    /**
+     * Keep the profile up to date and answer interview requests.
+     */
+    private class CandidateScenario implements Runnable {
+        private final Account candidate;
+        private final Map<String, Samples> samples;
+
+        CandidateScenario(Account candidate, Map<String, Samples> samples) {
+            this.candidate = candidate;
+            this.samples = samples;
+        }
+
+        @Override
+        public void run() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            if (roll < 35) {
+                updateProfile(Step.PROFILE_UPDATE, null);
+            } else if (roll < 45) {
+                updateProfile(Step.PROFILE_UPDATE_PHOTO, new ApiClient.Part("photo", "photo.png", "image/png", photo));
+            } else if (roll < 50) {
+                updateProfile(Step.PROFILE_UPDATE_RESUME,
+                    new ApiClient.Part("resume", "resume.pdf", "application/pdf", resume));
+            } else if (roll < 85) {
+                answerPending();
+            } else {
+                timed(samples, Step.PROFILE_VIEW, () -> api.send("GET", "/api/candidates/" + candidate.id(),
+                    candidate.token(), null));
+            }
+        }
+
+        private void updateProfile(Step step, ApiClient.Part upload) {
+            List<ApiClient.Part> parts = new ArrayList<>();
+            parts.add(new ApiClient.Part("profile", null, "application/json", profileJson().getBytes(StandardCharsets.UTF_8)));
+            if (upload != null) {
+                parts.add(upload);
+            }
+            timed(samples, step, () -> api.sendMultipart("PUT", "/api/candidates/" + candidate.id(),
+                candidate.token(), parts));
+        }
+
+        private void answerPending() {
+            JsonNode requests = json(timed(samples, Step.INTERVIEW_LIST_CANDIDATE, () -> api.send("GET",
+                "/api/interview-requests/candidate/" + candidate.id(), candidate.token(), null)));
+            List<JsonNode> pending = withStatus(requests, "PENDING");
+            if (!pending.isEmpty()) {
+                JsonNode request = pending.get(ThreadLocalRandom.current().nextInt(pending.size()));
+                String status = ThreadLocalRandom.current().nextInt(10) < 7 ? "ACCEPTED" : "REJECTED";
+                timed(samples, Step.INTERVIEW_STATUS, () -> api.send("PUT", "/api/interview-requests/" +
+                    request.path("id").asLong() + "/status?status=" + status + "&version=" +
+                    request.path("version").asLong(), candidate.token(), null));
+            }
+        }
+    }
+
+    // Returns the response if it succeeded, otherwise null; either way the call is recorded
+    private static HttpResponse<String> timed(Map<String, Samples> samples, Step step, Call call) {
+        Samples s = samples.computeIfAbsent(step.id, id -> new Samples());
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = call.send();
+            boolean ok = response.statusCode() < 400;
+            s.record(System.nanoTime() - start, ok);
+            return ok ? response : null;
+        } catch (IOException e) {
+            s.record(System.nanoTime() - start, false);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private JsonNode json(HttpResponse<String> response) {
+        if (response == null) {
+            return MissingNode.getInstance();
+        }
+        try {
+            return objectMapper.readTree(response.body());
+        } catch (JsonProcessingException e) {
+            return MissingNode.getInstance();
+        }
+    }
+
+    private static List<JsonNode> withStatus(JsonNode requests, String status) {
+        List<JsonNode> matching = new ArrayList<>();
+        for (JsonNode request : requests) {
+            if (status.equals(request.path("status").asText())) {
+                matching.add(request);
+            }
+        }
+        return matching;
+    }
+
+    private String profileJson() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<String> skills = new ArrayList<>();
+        for (int i = 0, n = 2 + random.nextInt(5); i < n; i++) {
+            String skill = pick(SKILLS);
+            if (!skills.contains(skill)) {
+                skills.add(skill);
+            }
+        }
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("bio", "Engineer with " + (2 + random.nextInt(15)) + " years of experience in " + String.join(", ", skills));
+        profile.put("skills", skills);
+        profile.put("experience", List.of("Senior engineer at Example GmbH, 2019-2024"));
+        profile.put("location", pick(CITIES));
+        profile.put("preferredWorkType", pick(WORK_TYPES));
+        profile.put("preferredIndustries", List.of("software"));
+        profile.put("expectedSalary", (60 + random.nextInt(60)) + "k EUR");
+        try {
+            return objectMapper.writeValueAsString(profile);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void think() {
+        if (thinkTimeMillis > 0) {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(2L * thinkTimeMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static <T> T pick(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static <T> List<T> collect(List<Future<T>> futures) throws Exception {
+        List<T> values = new ArrayList<>(futures.size());
+        for (Future<T> future : futures) {
+            values.add(future.get());
+        }
+        return values;
+    }
+
+    private static byte[] photo() throws IOException {
+        BufferedImage image = new BufferedImage(1200, 900, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, new Color(40, 90, 160), 1200, 900, new Color(230, 180, 90)));
+        graphics.fillRect(0, 0, 1200, 900);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] resume() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 11);
+                content.newLineAtOffset(72, 720);
+                for (String skill : SKILLS) {
+                    content.showText("Worked with " + skill + " on production systems serving millions of users.");
+                    content.newLineAtOffset(0, -14);
+                }
+                content.endText();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void report(String label, int seconds, Map<String, Samples> samples, Path results) throws IOException {
+        StringBuilder csv = new StringBuilder();
+        System.out.printf("%-24s %-52s %9s %8s %9s %9s %9s %9s %7s%n",
+            "step", "endpoint", "requests", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (Step step : Step.values()) {
+            Samples s = samples.get(step.id);
+            if (s == null) {
+                continue;
+            }
+            double throughput = (double) s.attempts() / seconds;
+            System.out.printf("%-24s %-52s %9d %8.1f %9.1f %9.1f %9.1f %9.1f %7d%n", step.id, step.description,
+                s.attempts(), throughput, s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                s.percentileMillis(100), s.errors());
+            csv.append(String.format("%s,%s,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%d%n", label, step.id, s.attempts(),
+                throughput, s.percentileMillis(50), s.percentileMillis(90), s.percentileMillis(99),
+                s.percentileMillis(100), s.errors()));
+        }
+
+        Path parent = results.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (!Files.exists(results)) {
+            Files.writeString(results, "label,step,requests,throughput,p50_ms,p90_ms,p99_ms,max_ms,errors\n");
+        }
+        Files.writeString(results, csv, StandardOpenOption.APPEND);
+        System.out.println("Results appended to " + results.toAbsolutePath());
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        HttpResponse<String> send() throws IOException, InterruptedException;
+    }
+
+    record Account(long id, String token) {
+    }
+
+    record Population(List<Account> employers, List<Account> candidates) {
+
+        // Sessions come in pairs of an employer and a candidate writing to each other
+        List<ChatLoad.Participant> chatParticipants(int count) {
+            List<ChatLoad.Participant> participants = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Account employer = employers.get(i / 2 % employers.size());
+                Account candidate = candidates.get(i / 2 % candidates.size());
+                participants.add(i % 2 == 0
+                    ? new ChatLoad.Participant(employer.id(), employer.token(), candidate.id())
+                    : new ChatLoad.Participant(candidate.id(), candidate.token(), employer.id()));
+            }
+            return participants;
+        }
+    }
+}
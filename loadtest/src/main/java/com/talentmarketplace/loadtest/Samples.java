@@ -0,0 +1,63 @@
+package com.talentmarketplace.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one endpoint in nanoseconds. Each client thread owns its own instances, so
+ * recording needs no synchronization; they are merged once the run is over.
+ */
+class Samples {
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private long missing;
+
+    void record(long nanos, boolean ok) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        if (!ok) {
+            errors++;
+        }
+    }
+
+    // Attempts that never completed, such as chat messages that were not delivered
+    void recordMissing(long attempts) {
+        missing += attempts;
+    }
+
+    void addAll(Samples other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.latencies[i], true);
+        }
+        errors += other.errors;
+        missing += other.missing;
+    }
+
+    int count() {
+        return count;
+    }
+
+    long attempts() {
+        return count + missing;
+    }
+
+    long errors() {
+        return errors + missing;
+    }
+
+    double errorRate() {
+        return attempts() == 0 ? 0 : (double) errors() / attempts();
+    }
+
+    double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+    }
+}
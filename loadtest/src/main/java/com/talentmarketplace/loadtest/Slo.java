@@ -0,0 +1,101 @@
+package com.talentmarketplace.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Service level objectives for a load test run, read from a properties file with one
+ * {@code <step>.<objective>=<limit>} entry per objective. The objectives are {@code p50-ms},
+ * {@code p90-ms}, {@code p99-ms} and {@code max-ms} latency limits, {@code max-error-rate} as a
+ * fraction and {@code min-throughput} in operations per second. Objectives under
+ * {@code default} apply to every step that does not set its own.
+ */
+class Slo {
+    private static final String DEFAULT_STEP = "default";
+
+    private final Properties limits;
+
+    private Slo(Properties limits) {
+        this.limits = limits;
+    }
+
+    // A file path, or null for the slo.properties bundled with the load tests
+    static Slo load(String location) throws IOException {
+        Properties limits = new Properties();
+        if (location == null) {
+            try (InputStream in = Slo.class.getResourceAsStream("/slo.properties")) {
+                limits.load(in);
+            }
+        } else {
+            try (Reader in = Files.newBufferedReader(Path.of(location))) {
+                limits.load(in);
+            }
+        }
+        return new Slo(limits);
+    }
+
+    /**
+     * Returns one line per objective that the run missed; empty if all were met. A step with
+     * objectives but no samples is a miss, so a scenario that stops working cannot pass.
+     */
+    List<String> check(Map<String, Samples> results, int seconds) {
+        List<String> violations = new ArrayList<>();
+        Set<String> named = namedSteps();
+        Set<String> steps = new TreeSet<>(results.keySet());
+        steps.addAll(named);
+        steps.remove(DEFAULT_STEP);
+        for (String step : steps) {
+            Samples samples = results.get(step);
+            if (samples == null || samples.count() == 0) {
+                if (named.contains(step)) {
+                    violations.add(step + ": no samples");
+                }
+                continue;
+            }
+            checkMax(violations, step, "p50-ms", samples.percentileMillis(50));
+            checkMax(violations, step, "p90-ms", samples.percentileMillis(90));
+            checkMax(violations, step, "p99-ms", samples.percentileMillis(99));
+            checkMax(violations, step, "max-ms", samples.percentileMillis(100));
+            checkMax(violations, step, "max-error-rate", samples.errorRate());
+            Double minThroughput = limit(step, "min-throughput");
+            double throughput = (double) samples.attempts() / seconds;
+            if (minThroughput != null && throughput < minThroughput) {
+                violations.add(String.format("%s: min-throughput %.1f/s, measured %.1f/s", step, minThroughput, throughput));
+            }
+        }
+        return violations;
+    }
+
+    private Set<String> namedSteps() {
+        Set<String> steps = new TreeSet<>();
+        for (String key : limits.stringPropertyNames()) {
+            steps.add(key.substring(0, key.indexOf('.')));
+        }
+        return steps;
+    }
+
+    private void checkMax(List<String> violations, String step, String objective, double measured) {
+        Double limit = limit(step, objective);
+        if (limit != null && measured > limit) {
+            violations.add(String.format("%s: %s %s, measured %.3f", step, objective, format(limit), measured));
+        }
+    }
+
+    private Double limit(String step, String objective) {
+        String value = limits.getProperty(step + "." + objective, limits.getProperty(DEFAULT_STEP + "." + objective));
+        return value != null ? Double.valueOf(value.trim()) : null;
+    }
+
+    private static String format(double limit) {
+        return limit == Math.rint(limit) ? String.valueOf((long) limit) : String.valueOf(limit);
+    }
+}